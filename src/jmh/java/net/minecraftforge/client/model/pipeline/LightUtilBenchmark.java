@@ -0,0 +1,91 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.client.model.pipeline;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Unpacks and repacks every element of a whole item quad, as the model pipeline does for each baked quad it transforms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LightUtilBenchmark
+{
+    private final VertexFormat format = DefaultVertexFormats.ITEM;
+    private int[] quad;
+    private int[] target;
+    private float[] element = new float[4];
+
+    @Setup
+    public void setup()
+    {
+        quad = new int[format.getIntegerSize() * 4];
+        target = new int[quad.length];
+        for (int i = 0; i < quad.length; i++)
+        {
+            quad[i] = i * 0x01010101;
+        }
+    }
+
+    @Benchmark
+    public float[] unpack()
+    {
+        for (int v = 0; v < 4; v++)
+        {
+            for (int e = 0; e < format.getElementCount(); e++)
+            {
+                LightUtil.unpack(quad, element, format, v, e);
+            }
+        }
+        return element;
+    }
+
+    @Benchmark
+    public int[] unpackPack()
+    {
+        for (int v = 0; v < 4; v++)
+        {
+            for (int e = 0; e < format.getElementCount(); e++)
+            {
+                LightUtil.unpack(quad, element, format, v, e);
+                LightUtil.pack(element, target, format, v, e);
+            }
+        }
+        return target;
+    }
+}
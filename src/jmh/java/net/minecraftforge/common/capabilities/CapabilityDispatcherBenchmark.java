@@ -0,0 +1,130 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.capabilities;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.ResourceLocation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Lookups through a dispatcher holding a number of providers, each exposing its own capability, as attached by
+ * {@code AttachCapabilitiesEvent}. Lives in this package to create capabilities without the ASM injection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapabilityDispatcherBenchmark
+{
+    private static final Capability.IStorage<Object> STORAGE = new Capability.IStorage<Object>()
+    {
+        @Override
+        @Nullable
+        public NBTBase writeNBT(Capability<Object> capability, Object instance, EnumFacing side)
+        {
+            return null;
+        }
+
+        @Override
+        public void readNBT(Capability<Object> capability, Object instance, EnumFacing side, NBTBase nbt)
+        {
+        }
+    };
+
+    @Param({"1", "4", "16"})
+    public int providers;
+
+    private CapabilityDispatcher dispatcher;
+    private Capability<Object> first;
+    private Capability<Object> last;
+    private Capability<Object> missing;
+
+    @Setup
+    public void setup()
+    {
+        Map<ResourceLocation, ICapabilityProvider> map = Maps.newLinkedHashMap();
+        for (int i = 0; i < providers; i++)
+        {
+            Capability<Object> cap = new Capability<Object>("bench" + i, STORAGE, Object::new);
+            Object instance = new Object();
+            map.put(new ResourceLocation("bench", "provider" + i), new ICapabilityProvider()
+            {
+                @Override
+                public boolean hasCapability(Capability<?> capability, @Nullable EnumFacing facing)
+                {
+                    return capability == cap;
+                }
+
+                @Override
+                @Nullable
+                public <T> T getCapability(Capability<T> capability, @Nullable EnumFacing facing)
+                {
+                    return capability == cap ? cap.cast(instance) : null;
+                }
+            });
+            if (i == 0)
+            {
+                first = cap;
+            }
+            last = cap;
+        }
+        missing = new Capability<Object>("benchMissing", STORAGE, Object::new);
+        dispatcher = new CapabilityDispatcher(map);
+    }
+
+    @Benchmark
+    public Object getFirst()
+    {
+        return dispatcher.getCapability(first, EnumFacing.NORTH);
+    }
+
+    @Benchmark
+    public Object getLast()
+    {
+        return dispatcher.getCapability(last, EnumFacing.NORTH);
+    }
+
+    @Benchmark
+    public boolean hasMissing()
+    {
+        return dispatcher.hasCapability(missing, null);
+    }
+}
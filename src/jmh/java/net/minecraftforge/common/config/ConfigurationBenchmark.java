@@ -0,0 +1,105 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraftforge.fml.relauncher.FMLInjectionData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.io.Files;
+
+/**
+ * Parses a generated config file with a mix of scalar and list properties, the work every mod does during pre-init.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationBenchmark
+{
+    @Param({"10", "100"})
+    public int categories;
+
+    private File dir;
+    private File file;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        dir = Files.createTempDir();
+        // Configuration resolves paths against the game directory, which only the launcher normally sets
+        Field home = FMLInjectionData.class.getDeclaredField("minecraftHome");
+        home.setAccessible(true);
+        home.set(null, dir);
+
+        StringBuilder text = new StringBuilder("# Configuration file\n\n");
+        for (int c = 0; c < categories; c++)
+        {
+            text.append("category").append(c).append(" {\n");
+            for (int p = 0; p < 10; p++)
+            {
+                text.append("    # Comment for property ").append(p).append('\n');
+                text.append("    I:int").append(p).append('=').append(p * 7).append('\n');
+                text.append("    B:bool").append(p).append('=').append(p % 2 == 0).append('\n');
+                text.append("    S:\"string ").append(p).append("\"=value ").append(p).append('\n');
+            }
+            text.append("    S:list <\n");
+            for (int i = 0; i < 10; i++)
+            {
+                text.append("        entry").append(i).append('\n');
+            }
+            text.append("     >\n}\n\n");
+        }
+        file = new File(dir, "bench.cfg");
+        Files.asCharSink(file, StandardCharsets.UTF_8).write(text);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        file.delete();
+        dir.delete();
+    }
+
+    @Benchmark
+    public Configuration load()
+    {
+        return new Configuration(file);
+    }
+}
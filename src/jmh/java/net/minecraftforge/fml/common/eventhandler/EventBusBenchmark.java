@@ -0,0 +1,101 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.common.eventhandler;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraftforge.fml.common.Loader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark
+{
+    public static class BenchEvent extends Event
+    {
+        private int counter;
+    }
+
+    @Cancelable
+    public static class CancelableBenchEvent extends Event
+    {
+    }
+
+    public static class Listener
+    {
+        @SubscribeEvent
+        public void onEvent(BenchEvent event)
+        {
+            event.counter++;
+        }
+
+        @SubscribeEvent
+        public void onCancelable(CancelableBenchEvent event)
+        {
+        }
+    }
+
+    @Param({"0", "1", "10", "100"})
+    public int listeners;
+
+    private EventBus bus;
+
+    @Setup
+    public void setup()
+    {
+        Loader.instance().setActiveModContainer(Loader.instance().getMinecraftModContainer());
+        bus = new EventBus();
+        for (int i = 0; i < listeners; i++)
+        {
+            bus.register(new Listener());
+        }
+        Loader.instance().setActiveModContainer(null);
+    }
+
+    @Benchmark
+    public void post(Blackhole bh)
+    {
+        BenchEvent event = new BenchEvent();
+        bus.post(event);
+        bh.consume(event.counter);
+    }
+
+    @Benchmark
+    public boolean postCancelable()
+    {
+        return bus.post(new CancelableBenchEvent());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.common.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Round trips a mod message through the indexed codec on an embedded channel, without any real network I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexedCodecBenchmark
+{
+    public static class Message
+    {
+        int[] data;
+    }
+
+    public static class Codec extends FMLIndexedMessageToMessageCodec<Message>
+    {
+        public Codec()
+        {
+            addDiscriminator(0, Message.class);
+        }
+
+        @Override
+        public void encodeInto(ChannelHandlerContext ctx, Message msg, ByteBuf target)
+        {
+            target.writeInt(msg.data.length);
+            for (int i : msg.data)
+            {
+                target.writeInt(i);
+            }
+        }
+
+        @Override
+        public void decodeInto(ChannelHandlerContext ctx, ByteBuf source, Message msg)
+        {
+            msg.data = new int[source.readInt()];
+            for (int i = 0; i < msg.data.length; i++)
+            {
+                msg.data[i] = source.readInt();
+            }
+        }
+    }
+
+    @Param({"4", "256"})
+    public int length;
+
+    private EmbeddedChannel channel;
+    private Message message;
+    private FMLProxyPacket packet;
+
+    @Setup
+    public void setup()
+    {
+        channel = new EmbeddedChannel(new Codec());
+        channel.attr(NetworkRegistry.FML_CHANNEL).set("bench");
+        message = new Message();
+        message.data = new int[length];
+        for (int i = 0; i < length; i++)
+        {
+            message.data[i] = i * 31;
+        }
+
+        PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
+        buffer.writeByte(0);
+        new Codec().encodeInto(null, message, buffer);
+        packet = new FMLProxyPacket(buffer, "bench");
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        channel.finish();
+    }
+
+    @Benchmark
+    public Object encode()
+    {
+        channel.writeOutbound(message);
+        return channel.readOutbound();
+    }
+
+    @Benchmark
+    public Object decode()
+    {
+        channel.writeInbound(packet);
+        return channel.readInbound();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.items;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fml.common.Loader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Moving stacks between two inventories, simulated so every invocation starts from the same state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemHandlerHelperBenchmark
+{
+    @Param({"9", "27", "54"})
+    public int slots;
+
+    private ItemStackHandler source;
+    private ItemStackHandler dest;
+    private ItemStack stack;
+
+    @Setup
+    public void setup()
+    {
+        Loader.instance();
+        Bootstrap.register();
+        source = new ItemStackHandler(slots);
+        dest = new ItemStackHandler(slots);
+        for (int i = 0; i < slots; i++)
+        {
+            source.setStackInSlot(i, new ItemStack(i % 2 == 0 ? Items.IRON_INGOT : Items.GOLD_INGOT, 32));
+            if (i < slots - 1)
+            {
+                dest.setStackInSlot(i, new ItemStack(i % 3 == 0 ? Items.IRON_INGOT : Items.DIAMOND, 60));
+            }
+        }
+        stack = new ItemStack(Items.IRON_INGOT, 64);
+    }
+
+    @Benchmark
+    public ItemStack insertItem()
+    {
+        return ItemHandlerHelper.insertItem(dest, stack, true);
+    }
+
+    @Benchmark
+    public ItemStack insertItemStacked()
+    {
+        return ItemHandlerHelper.insertItemStacked(dest, stack, true);
+    }
+
+    @Benchmark
+    public int transferItems()
+    {
+        return ItemHandlerHelper.transferItems(source, dest, Integer.MAX_VALUE, null, true);
+    }
+}
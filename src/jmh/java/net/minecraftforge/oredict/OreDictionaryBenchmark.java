@@ -0,0 +1,81 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.oredict;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fml.common.Loader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OreDictionaryBenchmark
+{
+    private ItemStack registered;
+    private ItemStack wildcard;
+    private ItemStack unregistered;
+
+    @Setup
+    public void setup()
+    {
+        Loader.instance();
+        Bootstrap.register();
+        OreDictionary.getOreName(0); // Loads the class, which registers the vanilla entries
+        registered = new ItemStack(Items.DIAMOND);
+        wildcard = new ItemStack(Blocks.PLANKS, 1, 3);
+        unregistered = new ItemStack(Items.BLAZE_POWDER);
+    }
+
+    @Benchmark
+    public int[] registered()
+    {
+        return OreDictionary.getOreIDs(registered);
+    }
+
+    @Benchmark
+    public int[] wildcard()
+    {
+        return OreDictionary.getOreIDs(wildcard);
+    }
+
+    @Benchmark
+    public int[] unregistered()
+    {
+        return OreDictionary.getOreIDs(unregistered);
+    }
+}
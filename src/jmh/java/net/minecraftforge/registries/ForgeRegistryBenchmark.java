@@ -0,0 +1,106 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.registries;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.Loader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ID and name lookups in a registry of plain entries, the same calls block state and item ID serialization makes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForgeRegistryBenchmark
+{
+    public static class Entry extends IForgeRegistryEntry.Impl<Entry>
+    {
+    }
+
+    @Param({"256", "4096"})
+    public int size;
+
+    private ForgeRegistry<Entry> registry;
+    private Entry[] entries;
+    private ResourceLocation[] names;
+    private int index;
+
+    @Setup
+    public void setup()
+    {
+        Loader.instance();
+        registry = (ForgeRegistry<Entry>)new RegistryBuilder<Entry>().setName(new ResourceLocation("bench", "entries" + size)).setType(Entry.class).setMaxID(Short.MAX_VALUE).disableSaving().create();
+        entries = new Entry[size];
+        names = new ResourceLocation[size];
+        for (int i = 0; i < size; i++)
+        {
+            names[i] = new ResourceLocation("bench", "entry" + i);
+            entries[i] = new Entry().setRegistryName(names[i]);
+            registry.register(entries[i]);
+        }
+    }
+
+    private int next()
+    {
+        index = (index + 1) & (size - 1);
+        return index;
+    }
+
+    @Benchmark
+    public int getID()
+    {
+        return registry.getID(entries[next()]);
+    }
+
+    @Benchmark
+    public Entry getValueById()
+    {
+        return registry.getValue(next());
+    }
+
+    @Benchmark
+    public Entry getValueByName()
+    {
+        return registry.getValue(names[next()]);
+    }
+
+    @Benchmark
+    public ResourceLocation getKey()
+    {
+        return registry.getKey(entries[next()]);
+    }
+}
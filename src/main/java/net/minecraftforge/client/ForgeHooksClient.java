@@ -30,6 +30,8 @@ import java.io.File;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.Nonnull;
 import javax.vecmath.Matrix3f;
@@ -181,6 +183,12 @@ public class ForgeHooksClient
         MinecraftForge.EVENT_BUS.post(new TextureStitchEvent.Post(map));
     }
 
+    /**
+     * Guards the static buffer TextureUtil blends transparent pixels with while generating mipmaps,
+     * as TextureMap loads sprites on several threads.
+     */
+    public static final Lock MIPMAP_ALPHA_LOCK = new ReentrantLock();
+
     static int renderPass = -1;
     public static void setRenderPass(int pass)
     {
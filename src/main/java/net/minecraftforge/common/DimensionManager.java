@@ -20,16 +20,16 @@
 package net.minecraftforge.common;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentMap;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntListIterator;
 import org.apache.logging.log4j.Level;
@@ -39,8 +39,13 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
 import com.google.common.collect.Multiset;
 
+import net.minecraft.block.Block;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.init.Blocks;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.DimensionType;
 import net.minecraft.world.MinecraftException;
 import net.minecraft.world.World;
@@ -61,17 +66,99 @@ public class DimensionManager
     {
         private final DimensionType type;
         private int ticksWaited;
+        // Extra ticks to wait before unloading, grown when the dimension keeps coming back shortly after unloading
+        private int keepAlive;
+        private int lastUnload = -1;
         private Dimension(DimensionType type)
         {
             this.type = type;
             this.ticksWaited = 0;
         }
+
+        private void onLoad(int tick)
+        {
+            int max = ForgeModContainer.dimensionUnloadMaxKeepAlive;
+            if (lastUnload >= 0 && tick - lastUnload <= max)
+            {
+                keepAlive = Math.min(Math.max(keepAlive * 2, MIN_KEEP_ALIVE), max);
+                FMLLog.log.debug("Dimension {} reloaded {} ticks after unloading, keeping it alive for {} ticks", type.getName(), tick - lastUnload, keepAlive);
+            }
+            else
+            {
+                keepAlive = 0;
+            }
+        }
+
+        private int getUnloadDelay()
+        {
+            return Math.max(ForgeModContainer.dimensionUnloadQueueDelay, keepAlive);
+        }
+    }
+
+    private static final int MIN_KEEP_ALIVE = 200;
+
+    /**
+     * Immutable view of the loaded worlds. A new table is built and published on every load or unload,
+     * so lookups and the per-tick iteration never lock or allocate. Loads and unloads are rare.
+     */
+    private static final class WorldTable
+    {
+        private static final int[] VANILLA_ORDER = { 0, -1, 1 };
+        private static final WorldTable EMPTY = new WorldTable(new Int2ObjectOpenHashMap<WorldServer>(), new Int2ObjectOpenHashMap<long[]>());
+
+        private final Int2ObjectMap<WorldServer> worlds;
+        private final Int2ObjectMap<long[]> tickTimes;
+        private final int[] ids;
+        private final WorldServer[] ordered;
+
+        private WorldTable(Int2ObjectOpenHashMap<WorldServer> worlds, Int2ObjectOpenHashMap<long[]> tickTimes)
+        {
+            this.worlds = worlds;
+            this.tickTimes = tickTimes;
+            // Vanilla dimensions first, matching the order of MinecraftServer.worlds
+            IntArrayList ids = new IntArrayList(worlds.size());
+            for (int dim : VANILLA_ORDER)
+            {
+                if (worlds.containsKey(dim))
+                    ids.add(dim);
+            }
+            for (int dim : worlds.keySet())
+            {
+                if (dim < -1 || dim > 1)
+                    ids.add(dim);
+            }
+            this.ids = ids.toIntArray();
+            this.ordered = new WorldServer[this.ids.length];
+            for (int x = 0; x < this.ids.length; x++)
+            {
+                this.ordered[x] = worlds.get(this.ids[x]);
+            }
+        }
+
+        private WorldTable with(int id, @Nullable WorldServer world, @Nullable long[] times)
+        {
+            Int2ObjectOpenHashMap<WorldServer> worlds = new Int2ObjectOpenHashMap<WorldServer>(this.worlds);
+            Int2ObjectOpenHashMap<long[]> tickTimes = new Int2ObjectOpenHashMap<long[]>(this.tickTimes);
+            if (world != null)
+            {
+                worlds.put(id, world);
+                tickTimes.put(id, times);
+            }
+            else
+            {
+                worlds.remove(id);
+                tickTimes.remove(id);
+            }
+            return new WorldTable(worlds, tickTimes);
+        }
     }
 
-    private static Hashtable<Integer, WorldServer> worlds = new Hashtable<Integer, WorldServer>();
+    private static volatile WorldTable worlds = WorldTable.EMPTY;
     private static boolean hasInit = false;
-    private static Hashtable<Integer, Dimension> dimensions = new Hashtable<Integer, Dimension>();
+    // Copy-on-write like the world table: registration is rare, lookups happen from any thread.
+    private static volatile Int2ObjectMap<Dimension> dimensions = Int2ObjectMaps.emptyMap();
     private static IntArrayList unloadQueue = new IntArrayList();
+    private static IntArrayList preloadQueue = new IntArrayList();
     private static BitSet dimensionMap = new BitSet(Long.SIZE << 4);
     private static ConcurrentMap<World, World> weakWorldMap = new MapMaker().weakKeys().weakValues().<World,World>makeMap();
     private static Multiset<Integer> leakedWorlds = HashMultiset.create();
@@ -81,13 +168,14 @@ public class DimensionManager
      */
     public static int[] getDimensions(DimensionType type)
     {
+        Int2ObjectMap<Dimension> dimensions = DimensionManager.dimensions;
         int[] ret = new int[dimensions.size()];
         int x = 0;
-        for (Map.Entry<Integer, Dimension> ent : dimensions.entrySet())
+        for (Int2ObjectMap.Entry<Dimension> ent : dimensions.int2ObjectEntrySet())
         {
             if (ent.getValue().type == type)
             {
-                ret[x++] = ent.getKey();
+                ret[x++] = ent.getIntKey();
             }
         }
 
@@ -108,14 +196,16 @@ public class DimensionManager
         registerDimension( 1, DimensionType.THE_END);
     }
 
-    public static void registerDimension(int id, DimensionType type)
+    public static synchronized void registerDimension(int id, DimensionType type)
     {
         DimensionType.getById(type.getId()); //Check if type is invalid {will throw an error} No clue how it would be invalid tho...
         if (dimensions.containsKey(id))
         {
             throw new IllegalArgumentException(String.format("Failed to register dimension for id %d, One is already registered", id));
         }
-        dimensions.put(id, new Dimension(type));
+        Int2ObjectOpenHashMap<Dimension> copy = new Int2ObjectOpenHashMap<Dimension>(dimensions);
+        copy.put(id, new Dimension(type));
+        dimensions = Int2ObjectMaps.unmodifiable(copy);
         if (id >= 0)
         {
             dimensionMap.set(id);
@@ -125,13 +215,15 @@ public class DimensionManager
     /**
      * For unregistering a dimension when the save is changed (disconnected from a server or loaded a new save
      */
-    public static void unregisterDimension(int id)
+    public static synchronized void unregisterDimension(int id)
     {
         if (!dimensions.containsKey(id))
         {
             throw new IllegalArgumentException(String.format("Failed to unregister dimension for id %d; No provider registered", id));
         }
-        dimensions.remove(id);
+        Int2ObjectOpenHashMap<Dimension> copy = new Int2ObjectOpenHashMap<Dimension>(dimensions);
+        copy.remove(id);
+        dimensions = Int2ObjectMaps.unmodifiable(copy);
     }
 
     public static boolean isDimensionRegistered(int dim)
@@ -141,11 +233,12 @@ public class DimensionManager
 
     public static DimensionType getProviderType(int dim)
     {
-        if (!dimensions.containsKey(dim))
+        Dimension dimension = dimensions.get(dim);
+        if (dimension == null)
         {
             throw new IllegalArgumentException(String.format("Could not get provider type for dimension %d, does not exist", dim));
         }
-        return dimensions.get(dim).type;
+        return dimension.type;
     }
 
     public static WorldProvider getProvider(int dim)
@@ -157,68 +250,82 @@ public class DimensionManager
     {
         if (check)
         {
-            List<World> allWorlds = Lists.newArrayList(weakWorldMap.keySet());
-            allWorlds.removeAll(worlds.values());
-            for (ListIterator<World> li = allWorlds.listIterator(); li.hasNext(); )
-            {
-                World w = li.next();
-                leakedWorlds.add(System.identityHashCode(w));
-            }
-            for (World w : allWorlds)
-            {
-                int leakCount = leakedWorlds.count(System.identityHashCode(w));
-                if (leakCount == 5)
-                {
-                    FMLLog.log.debug("The world {} ({}) may have leaked: first encounter (5 occurrences).\n", Integer.toHexString(System.identityHashCode(w)), w.getWorldInfo().getWorldName());
-                }
-                else if (leakCount % 5 == 0)
-                {
-                    FMLLog.log.debug("The world {} ({}) may have leaked: seen {} times.\n", Integer.toHexString(System.identityHashCode(w)), w.getWorldInfo().getWorldName(), leakCount);
-                }
-            }
+            checkForLeakedWorlds();
         }
         return getIDs();
     }
     public static Integer[] getIDs()
     {
-        return worlds.keySet().toArray(new Integer[worlds.size()]); //Only loaded dims, since usually used to cycle through loaded worlds
+        int[] ids = worlds.ids;
+        Integer[] ret = new Integer[ids.length];
+        for (int x = 0; x < ids.length; x++)
+        {
+            ret[x] = ids[x];
+        }
+        return ret; //Only loaded dims, since usually used to cycle through loaded worlds
+    }
+
+    /**
+     * Allocation free variant of {@link #getIDs(boolean)} for the server tick loop.
+     * The returned array is a shared snapshot of the loaded dimensions and must not be modified;
+     * worlds loaded or unloaded afterwards are reflected by the next call.
+     */
+    public static int[] getLoadedIDs(boolean check)
+    {
+        if (check)
+        {
+            checkForLeakedWorlds();
+        }
+        return worlds.ids;
+    }
+
+    private static void checkForLeakedWorlds()
+    {
+        List<World> allWorlds = Lists.newArrayList(weakWorldMap.keySet());
+        allWorlds.removeAll(Arrays.asList(worlds.ordered));
+        for (ListIterator<World> li = allWorlds.listIterator(); li.hasNext(); )
+        {
+            World w = li.next();
+            leakedWorlds.add(System.identityHashCode(w));
+        }
+        for (World w : allWorlds)
+        {
+            int leakCount = leakedWorlds.count(System.identityHashCode(w));
+            if (leakCount == 5)
+            {
+                FMLLog.log.debug("The world {} ({}) may have leaked: first encounter (5 occurrences).\n", Integer.toHexString(System.identityHashCode(w)), w.getWorldInfo().getWorldName());
+            }
+            else if (leakCount % 5 == 0)
+            {
+                FMLLog.log.debug("The world {} ({}) may have leaked: seen {} times.\n", Integer.toHexString(System.identityHashCode(w)), w.getWorldInfo().getWorldName(), leakCount);
+            }
+        }
     }
 
-    public static void setWorld(int id, @Nullable WorldServer world, MinecraftServer server)
+    public static synchronized void setWorld(int id, @Nullable WorldServer world, MinecraftServer server)
     {
         if (world != null)
         {
-            worlds.put(id, world);
+            long[] tickTimes = new long[100];
+            worlds = worlds.with(id, world, tickTimes);
+            Dimension dimension = dimensions.get(id);
+            if (dimension != null)
+                dimension.onLoad(server.getTickCounter());
             weakWorldMap.put(world, world);
-            server.worldTickTimes.put(id, new long[100]);
+            server.worldTickTimes.put(id, tickTimes);
             FMLLog.log.info("Loading dimension {} ({}) ({})", id, world.getWorldInfo().getWorldName(), world.getMinecraftServer());
         }
         else
         {
-            worlds.remove(id);
+            worlds = worlds.with(id, null, null);
             server.worldTickTimes.remove(id);
+            Dimension dimension = dimensions.get(id);
+            if (dimension != null)
+                dimension.lastUnload = server.getTickCounter();
             FMLLog.log.info("Unloading dimension {}", id);
         }
 
-        ArrayList<WorldServer> tmp = new ArrayList<WorldServer>();
-        if (worlds.get( 0) != null)
-            tmp.add(worlds.get( 0));
-        if (worlds.get(-1) != null)
-            tmp.add(worlds.get(-1));
-        if (worlds.get( 1) != null)
-            tmp.add(worlds.get( 1));
-
-        for (Entry<Integer, WorldServer> entry : worlds.entrySet())
-        {
-            int dim = entry.getKey();
-            if (dim >= -1 && dim <= 1)
-            {
-                continue;
-            }
-            tmp.add(entry.getValue());
-        }
-
-        server.worlds = tmp.toArray(new WorldServer[tmp.size()]);
+        server.worlds = worlds.ordered.clone();
     }
 
     public static void initDimension(int dim)
@@ -254,12 +361,21 @@ public class DimensionManager
 
     public static WorldServer getWorld(int id)
     {
-        return worlds.get(id);
+        return worlds.worlds.get(id);
     }
 
     public static WorldServer[] getWorlds()
     {
-        return worlds.values().toArray(new WorldServer[worlds.size()]);
+        return worlds.ordered.clone();
+    }
+
+    /**
+     * Not public API: the tick time ring buffer of a loaded dimension, shared with {@link MinecraftServer#worldTickTimes}.
+     */
+    @Nullable
+    public static long[] getWorldTickTimes(int id)
+    {
+        return worlds.tickTimes.get(id);
     }
 
     static
@@ -273,7 +389,7 @@ public class DimensionManager
      */
     public static Integer[] getStaticDimensionIDs()
     {
-        return dimensions.keySet().toArray(new Integer[dimensions.keySet().size()]);
+        return dimensions.keySet().toArray(new Integer[dimensions.size()]);
     }
     public static WorldProvider createProviderFor(int dim)
     {
@@ -321,23 +437,89 @@ public class DimensionManager
         return unloadQueue.contains(id);
     }
 
+    /**
+     * Asks for a dimension to be loaded at the end of the current server tick, ahead of an expected teleport,
+     * so the world init does not happen in the middle of the teleport itself. If the dimension is already loaded
+     * and waiting to unload, its unload delay is reset instead. A preloaded dimension that nobody enters is
+     * unloaded again through the normal unload queue.
+     * <p>
+     * Forge calls this for nether and end portals. Mods with their own portals may call it from the server thread
+     * when a player approaches one.
+     * @param id The id of the dimension
+     */
+    public static void preloadWorld(int id)
+    {
+        if (getWorld(id) != null)
+        {
+            if (isWorldQueuedToUnload(id))
+            {
+                dimensions.get(id).ticksWaited = 0;
+            }
+        }
+        else if (isDimensionRegistered(id) && !preloadQueue.contains(id))
+        {
+            FMLLog.log.debug("Queueing dimension {} to preload", id);
+            preloadQueue.add(id);
+        }
+    }
+
+    /**
+     * Not public API: preloads the dimension behind a nether or end portal the player stands in or looks at nearby.
+     */
+    static void checkPortalApproach(EntityPlayerMP player)
+    {
+        World world = player.world;
+        Vec3d look = player.getLookVec();
+        double len = Math.sqrt(look.x * look.x + look.z * look.z);
+        for (int step = 0; step <= 2; step++)
+        {
+            double dx = len < 1.0E-4D ? 0 : look.x / len * step;
+            double dz = len < 1.0E-4D ? 0 : look.z / len * step;
+            BlockPos pos = new BlockPos(player.posX + dx, player.posY, player.posZ + dz);
+            if (!world.isBlockLoaded(pos))
+            {
+                continue;
+            }
+            Block block = world.getBlockState(pos).getBlock();
+            int dim = world.provider.getDimension();
+            if (block == Blocks.PORTAL && player.mcServer.getAllowNether())
+            {
+                preloadWorld(dim == -1 ? 0 : -1);
+                return;
+            }
+            if (block == Blocks.END_PORTAL)
+            {
+                preloadWorld(dim == 1 ? 0 : 1);
+                return;
+            }
+        }
+    }
+
     /*
     * To be called by the server at the appropriate time, do not call from mod code.
+    * Spends at most ForgeModContainer.dimensionUnloadTickBudget milliseconds on unloading and preloading,
+    * but always makes progress on at least one dimension per tick.
     */
     public static void unloadWorlds(Hashtable<Integer, long[]> worldTickTimes) {
+        long deadline = System.nanoTime() + ForgeModContainer.dimensionUnloadTickBudget * 1_000_000L;
+        boolean worked = false;
         IntListIterator queueIterator = unloadQueue.iterator();
         while (queueIterator.hasNext()) {
             int id = queueIterator.next();
             Dimension dimension = dimensions.get(id);
-            if (dimension.ticksWaited < ForgeModContainer.dimensionUnloadQueueDelay)
+            if (dimension.ticksWaited < dimension.getUnloadDelay())
             {
                 dimension.ticksWaited++;
                 continue;
             }
-            WorldServer w = worlds.get(id);
+            if (worked && System.nanoTime() >= deadline)
+            {
+                continue; // Out of time for this tick, it stays due and is picked up on the next one
+            }
+            WorldServer w = getWorld(id);
             queueIterator.remove();
             dimension.ticksWaited = 0;
-            if (w == null || !ForgeChunkManager.getPersistentChunksFor(w).isEmpty() || !w.playerEntities.isEmpty() || dimension.type.shouldLoadSpawn()) //Don't unload the world if the status changed
+            if (w == null || !ForgeChunkManager.getPersistentChunkKeysFor(w).isEmpty() || !w.playerEntities.isEmpty() || dimension.type.shouldLoadSpawn()) //Don't unload the world if the status changed
             {
                 FMLLog.log.debug("Aborting unload for dimension {} as status changed", id);
                 continue;
@@ -355,6 +537,26 @@ public class DimensionManager
                 MinecraftForge.EVENT_BUS.post(new WorldEvent.Unload(w));
                 w.flush();
                 setWorld(id, null, w.getMinecraftServer());
+                worked = true;
+            }
+        }
+
+        while (!preloadQueue.isEmpty() && (!worked || System.nanoTime() < deadline))
+        {
+            int id = preloadQueue.removeInt(0);
+            if (getWorld(id) != null || getWorld(0) == null)
+            {
+                continue;
+            }
+            FMLLog.log.debug("Preloading dimension {}", id);
+            initDimension(id);
+            worked = true;
+            Dimension dimension = dimensions.get(id);
+            if (getWorld(id) != null && dimension != null)
+            {
+                // Give the expected visitor time to arrive before the empty world is unloaded again
+                dimension.keepAlive = Math.max(dimension.keepAlive, MIN_KEEP_ALIVE);
+                unloadWorld(id);
             }
         }
     }
@@ -402,7 +604,7 @@ public class DimensionManager
         dimensionMap.clear();
         if (compoundTag == null)
         {
-            for (Integer id : dimensions.keySet())
+            for (int id : dimensions.keySet())
             {
                 if (id >= 0)
                 {
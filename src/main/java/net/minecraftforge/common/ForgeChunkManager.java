@@ -26,22 +26,25 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
 import javax.annotation.Nullable;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
 import net.minecraft.entity.Entity;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
-import net.minecraft.util.ClassInheritanceMultiMap;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.common.chunkio.DormantChunkCache;
 import net.minecraftforge.common.config.ConfigCategory;
 import net.minecraftforge.common.config.Configuration;
 import net.minecraftforge.common.config.Property;
@@ -55,8 +58,6 @@ import net.minecraftforge.fml.common.eventhandler.Event;
 import org.apache.logging.log4j.Level;
 
 import java.util.function.Function;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
@@ -66,7 +67,6 @@ import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Iterators;
-import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
@@ -105,15 +105,14 @@ public class ForgeChunkManager
 
     private static Map<String, LoadingCallback> callbacks = Maps.newHashMap();
 
-    private static Map<World, ImmutableSetMultimap<ChunkPos,Ticket>> forcedChunks = new MapMaker().weakKeys().makeMap();
+    private static Map<World, ForcedChunks> forcedChunks = new MapMaker().weakKeys().makeMap();
     private static BiMap<UUID,Ticket> pendingEntities = HashBiMap.create();
 
-    private static Map<World,Cache<Long, Chunk>> dormantChunkCache = new MapMaker().weakKeys().makeMap();
-
     private static File cfgFile;
     private static Configuration config;
     private static int playerTicketLength;
     private static int dormantChunkCacheSize;
+    private static int dormantChunkCacheMemory;
 
     public static final List<String> MOD_PROP_ORDER = new ArrayList<String>(2);
 
@@ -125,12 +124,82 @@ public class ForgeChunkManager
         MOD_PROP_ORDER.add("maximumChunksPerTicket");
     }
 
+    /**
+     * Forced chunks of one world, keyed by {@link ChunkPos#asLong}. Forcing and unforcing a chunk only touches its own
+     * entry; the immutable multimap handed out by {@link #getPersistentChunksFor} is built on demand and cached until
+     * the next change. Only modified from the server thread; the snapshot is built and replaced under the lock so
+     * other threads always see a complete one.
+     */
+    private static class ForcedChunks
+    {
+        private final Long2ObjectOpenHashMap<LinkedHashSet<Ticket>> byChunk = new Long2ObjectOpenHashMap<LinkedHashSet<Ticket>>();
+        private final LongSet keys = LongSets.unmodifiable(byChunk.keySet());
+        @Nullable
+        private volatile ImmutableSetMultimap<ChunkPos, Ticket> snapshot = ImmutableSetMultimap.of();
+        @Nullable
+        private NBTTagCompound lastSaved;
+
+        synchronized void add(ChunkPos chunk, Ticket ticket)
+        {
+            long key = ChunkPos.asLong(chunk.x, chunk.z);
+            LinkedHashSet<Ticket> holders = byChunk.get(key);
+            if (holders == null)
+            {
+                holders = new LinkedHashSet<Ticket>(2);
+                byChunk.put(key, holders);
+            }
+            if (holders.add(ticket))
+            {
+                snapshot = null;
+            }
+        }
+
+        synchronized void remove(ChunkPos chunk, Ticket ticket)
+        {
+            long key = ChunkPos.asLong(chunk.x, chunk.z);
+            LinkedHashSet<Ticket> holders = byChunk.get(key);
+            if (holders != null && holders.remove(ticket))
+            {
+                if (holders.isEmpty())
+                {
+                    byChunk.remove(key);
+                }
+                snapshot = null;
+            }
+        }
+
+        ImmutableSetMultimap<ChunkPos, Ticket> getSnapshot()
+        {
+            ImmutableSetMultimap<ChunkPos, Ticket> ret = snapshot;
+            return ret != null ? ret : buildSnapshot();
+        }
+
+        private synchronized ImmutableSetMultimap<ChunkPos, Ticket> buildSnapshot()
+        {
+            ImmutableSetMultimap<ChunkPos, Ticket> ret = snapshot;
+            if (ret == null)
+            {
+                ImmutableSetMultimap.Builder<ChunkPos, Ticket> builder = ImmutableSetMultimap.builder();
+                for (Long2ObjectMap.Entry<LinkedHashSet<Ticket>> entry : byChunk.long2ObjectEntrySet())
+                {
+                    long key = entry.getLongKey();
+                    builder.putAll(new ChunkPos((int)key, (int)(key >> 32)), entry.getValue());
+                }
+                ret = snapshot = builder.build();
+            }
+            return ret;
+        }
+    }
+
     public static Iterator<Chunk> getPersistentChunksIterableFor(final World world, Iterator<Chunk> chunkIterator)
     {
-        final ImmutableSetMultimap<ChunkPos, Ticket> persistentChunksFor = getPersistentChunksFor(world);
         final ImmutableSet.Builder<Chunk> builder = ImmutableSet.builder();
         world.profiler.startSection("forcedChunkLoading");
-        builder.addAll(persistentChunksFor.keys().stream().filter(Objects::nonNull).map(input -> world.getChunkFromChunkCoords(input.x, input.z)).iterator());
+        // Loading a chunk runs load callbacks that may force or unforce chunks, so iterate a copy
+        for (long key : getPersistentChunkKeysFor(world).toLongArray())
+        {
+            builder.add(world.getChunkFromChunkCoords((int)key, (int)(key >> 32)));
+        }
         world.profiler.endStartSection("regularChunkLoading");
         builder.addAll(chunkIterator);
         world.profiler.endSection();
@@ -452,17 +521,13 @@ public class ForgeChunkManager
         ArrayListMultimap<String, Ticket> newTickets = ArrayListMultimap.create();
         tickets.put(world, newTickets);
 
-        forcedChunks.put(world, ImmutableSetMultimap.<ChunkPos,Ticket>of());
+        forcedChunks.put(world, new ForcedChunks());
 
         if (!(world instanceof WorldServer))
         {
             return;
         }
 
-        if (dormantChunkCacheSize != 0)
-        { // only put into cache if we're using dormant chunk caching
-            dormantChunkCache.put(world, CacheBuilder.newBuilder().maximumSize(dormantChunkCacheSize).<Long, Chunk>build());
-        }
         WorldServer worldServer = (WorldServer) world;
         File chunkDir = worldServer.getChunkSaveLocation();
         File chunkLoaderData = new File(chunkDir, "forcedchunks.dat");
@@ -607,10 +672,7 @@ public class ForgeChunkManager
         }
 
         forcedChunks.remove(world);
-        if (dormantChunkCacheSize != 0) // only if in use
-        {
-            dormantChunkCache.remove(world);
-        }
+        DormantChunkCache.clear(world);
         // integrated server is shutting down
         if (!FMLCommonHandler.instance().getMinecraftServerInstance().isServerRunning())
         {
@@ -801,8 +863,7 @@ public class ForgeChunkManager
         ticket.requestedChunks.add(chunk);
         MinecraftForge.EVENT_BUS.post(new ForceChunkEvent(ticket, chunk));
 
-        ImmutableSetMultimap<ChunkPos, Ticket> newMap = ImmutableSetMultimap.<ChunkPos,Ticket>builder().putAll(forcedChunks.get(ticket.world)).put(chunk, ticket).build();
-        forcedChunks.put(ticket.world, newMap);
+        forcedChunks.get(ticket.world).add(chunk, ticket);
         if (ticket.maxDepth > 0 && ticket.requestedChunks.size() > ticket.maxDepth)
         {
             ChunkPos removed = ticket.requestedChunks.iterator().next();
@@ -841,10 +902,11 @@ public class ForgeChunkManager
         }
         ticket.requestedChunks.remove(chunk);
         MinecraftForge.EVENT_BUS.post(new UnforceChunkEvent(ticket, chunk));
-        LinkedHashMultimap<ChunkPos, Ticket> copy = LinkedHashMultimap.create(forcedChunks.get(ticket.world));
-        copy.remove(chunk, ticket);
-        ImmutableSetMultimap<ChunkPos, Ticket> newMap = ImmutableSetMultimap.copyOf(copy);
-        forcedChunks.put(ticket.world,newMap);
+        ForcedChunks forced = forcedChunks.get(ticket.world);
+        if (forced != null)
+        {
+            forced.remove(chunk, ticket);
+        }
     }
 
     static void loadConfiguration()
@@ -875,7 +937,34 @@ public class ForgeChunkManager
      */
     public static ImmutableSetMultimap<ChunkPos, Ticket> getPersistentChunksFor(World world)
     {
-        return forcedChunks.containsKey(world) ? forcedChunks.get(world) : ImmutableSetMultimap.<ChunkPos,Ticket>of();
+        ForcedChunks forced = forcedChunks.get(world);
+        return forced != null ? forced.getSnapshot() : ImmutableSetMultimap.<ChunkPos,Ticket>of();
+    }
+
+    /**
+     * The persistent chunks in the world as {@link ChunkPos#asLong} keys. This is a read only live view that must only
+     * be used from the server thread, and must not be iterated while chunks may be forced or unforced; copy it with
+     * {@link LongSet#toLongArray()} first. Prefer it over {@link #getPersistentChunksFor} when the tickets are not needed.
+     * @param world
+     * @return the keys of the persistent chunks in the world
+     */
+    public static LongSet getPersistentChunkKeysFor(World world)
+    {
+        ForcedChunks forced = forcedChunks.get(world);
+        return forced != null ? forced.keys : LongSets.EMPTY_SET;
+    }
+
+    /**
+     * Whether any ticket forces the chunk at the given chunk coordinates. Server thread only.
+     * @param world
+     * @param chunkX
+     * @param chunkZ
+     * @return true if the chunk is persistent
+     */
+    public static boolean isChunkForced(World world, int chunkX, int chunkZ)
+    {
+        ForcedChunks forced = forcedChunks.get(world);
+        return forced != null && forced.byChunk.containsKey(ChunkPos.asLong(chunkX, chunkZ));
     }
 
     static void saveWorld(World world)
@@ -932,9 +1021,19 @@ public class ForgeChunkManager
                 }
             }
         }
+        // Ticket data can be changed in place by mods, so compare the result rather than tracking changes
+        ForcedChunks forced = forcedChunks.get(worldServer);
+        if (forced != null && forcedChunkData.equals(forced.lastSaved) && chunkLoaderData.isFile())
+        {
+            return;
+        }
         try
         {
             CompressedStreamTools.write(forcedChunkData, chunkLoaderData);
+            if (forced != null)
+            {
+                forced.lastSaved = forcedChunkData.copy();
+            }
         }
         catch (IOException e)
         {
@@ -954,38 +1053,20 @@ public class ForgeChunkManager
         }
     }
 
+    /**
+     * Keeps an unloading chunk in the {@link DormantChunkCache}. Must be called right after the chunk was saved.
+     */
     public static void putDormantChunk(long coords, Chunk chunk)
     {
-        if (dormantChunkCacheSize == 0) return; // Skip if we're not dormant caching chunks
-        Cache<Long, Chunk> cache = dormantChunkCache.get(chunk.getWorld());
-        if (cache != null)
-        {
-            cache.put(coords, chunk);
-        }
+        if (!DormantChunkCache.isEnabled()) return; // Skip if we're not dormant caching chunks
+        DormantChunkCache.put(chunk);
     }
 
     @Nullable
     public static Chunk fetchDormantChunk(long coords, World world)
     {
-        if (dormantChunkCacheSize == 0) return null; // Don't bother with maps at all if its never gonna get a response
-        Cache<Long, Chunk> cache = dormantChunkCache.get(world);
-        if (cache == null)
-        {
-            return null;
-        }
-        Chunk chunk = cache.getIfPresent(coords);
-        if (chunk != null)
-        {
-            for (ClassInheritanceMultiMap<Entity> eList : chunk.getEntityLists())
-            {
-                Iterator<Entity> itr = eList.iterator();
-                while (itr.hasNext())
-                {
-                    (itr.next()).resetEntityId();
-                }
-            }
-        }
-        return chunk;
+        if (!DormantChunkCache.isEnabled()) return null; // Don't bother with maps at all if its never gonna get a response
+        return DormantChunkCache.fetch(world, (int)coords, (int)(coords >> 32));
     }
 
     static void captureConfig(File configDir)
@@ -1057,7 +1138,16 @@ public class ForgeChunkManager
         temp.setMinValue(0);
         dormantChunkCacheSize = temp.getInt(0);
         propOrder.add("dormantChunkCacheSize");
-        FMLLog.log.info("Configured a dormant chunk cache size of {}", temp.getInt(0));
+
+        temp = config.get("defaults", "dormantChunkCacheMemory", 64);
+        temp.setComment("The memory (in megabytes) the dormant chunk cache may use, shared by all dimensions.\n" +
+                    "Chunks are stored compressed, the least recently unloaded ones are dropped first.");
+        temp.setLanguageKey("forge.configgui.dormantChunkCacheMemory");
+        temp.setMinValue(1);
+        dormantChunkCacheMemory = temp.getInt(64);
+        DormantChunkCache.configure(dormantChunkCacheSize, dormantChunkCacheMemory * 1024L * 1024L);
+        propOrder.add("dormantChunkCacheMemory");
+        FMLLog.log.info("Configured a dormant chunk cache size of {} chunks, {} MB", dormantChunkCacheSize, dormantChunkCacheMemory);
 
         config.setCategoryPropertyOrder("defaults", propOrder);
 
@@ -21,15 +21,18 @@ package net.minecraftforge.common;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.world.WorldServer;
+import net.minecraftforge.common.util.FakePlayer;
 import net.minecraftforge.common.util.FakePlayerFactory;
 import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 
 public class ForgeInternalHandler
 {
@@ -78,4 +81,15 @@ public class ForgeInternalHandler
         if (event.getWorld() instanceof WorldServer)
             FakePlayerFactory.unloadWorld((WorldServer) event.getWorld());
     }
+
+    @SubscribeEvent
+    public void onPlayerTick(TickEvent.PlayerTickEvent event)
+    {
+        // Spread the portal checks over ten ticks, players need several ticks in a portal to travel anyway
+        if (event.phase == TickEvent.Phase.END && ForgeModContainer.dimensionPreload && event.player instanceof EntityPlayerMP
+                && !(event.player instanceof FakePlayer) && (event.player.ticksExisted + event.player.getEntityId()) % 10 == 0)
+        {
+            DimensionManager.checkPortalApproach((EntityPlayerMP) event.player);
+        }
+    }
 }
@@ -66,6 +66,7 @@ import net.minecraftforge.fluids.UniversalBucket;
 import net.minecraftforge.oredict.OreDictionary;
 import net.minecraftforge.oredict.RecipeSorter;
 import net.minecraftforge.server.command.ForgeCommand;
+import net.minecraftforge.server.pregen.ChunkPregenerator;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
@@ -115,8 +116,14 @@ public class ForgeModContainer extends DummyModContainer implements WorldAccessC
     public static boolean zoomInMissingModelTextInGui = false;
     public static boolean disableStairSlabCulling = false; // Also known as the "DontCullStairsBecauseIUseACrappyTexturePackThatBreaksBasicBlockShapesSoICantTrustBasicBlockCulling" flag
     public static boolean alwaysSetupTerrainOffThread = false; // In RenderGlobal.setupTerrain, always force the chunk render updates to be queued to the thread
+    public static boolean parallelTextureLoading = true; // In TextureMap.loadTextureAtlas, decode vanilla sprites and generate their mipmaps on a worker pool
     public static int dimensionUnloadQueueDelay = 0;
+    public static int dimensionUnloadMaxKeepAlive = 6000;
+    public static int dimensionUnloadTickBudget = 10;
+    public static boolean dimensionPreload = true;
     public static boolean logCascadingWorldGeneration = true; // see Chunk#logCascadingWorldGeneration()
+    public static int pregenTickBudget = 20;
+    public static int pregenMaxLoadedChunks = 2048;
 
     static final Logger log = LogManager.getLogger(ForgeVersion.MOD_ID);
 
@@ -295,6 +302,37 @@ public class ForgeModContainer extends DummyModContainer implements WorldAccessC
         prop.setLanguageKey("forge.configgui.dimensionUnloadQueueDelay");
         propOrder.add(prop.getName());
 
+        prop = config.get(Configuration.CATEGORY_GENERAL, "dimensionUnloadMaxKeepAlive", 6000,
+                "The maximum time in ticks a dimension is kept loaded after it empties, when it keeps being loaded again shortly after unloading. " +
+                        "The keep alive doubles on every such reload up to this value, and resets once the dimension stays unloaded for longer. 0 disables this.", 0, 72000);
+        dimensionUnloadMaxKeepAlive = prop.getInt(6000);
+        prop.setLanguageKey("forge.configgui.dimensionUnloadMaxKeepAlive");
+        propOrder.add(prop.getName());
+
+        prop = config.get(Configuration.CATEGORY_GENERAL, "dimensionUnloadTickBudget", 10,
+                "The time in milliseconds of each server tick that may be spent unloading and preloading dimensions. At least one dimension is processed per tick.", 1, 1000);
+        dimensionUnloadTickBudget = prop.getInt(10);
+        prop.setLanguageKey("forge.configgui.dimensionUnloadTickBudget");
+        propOrder.add(prop.getName());
+
+        prop = config.get(Configuration.CATEGORY_GENERAL, "dimensionPreload", true,
+                "Load the target dimension at the end of the tick when a player stands in or walks up to a nether or end portal, instead of during the teleport.");
+        dimensionPreload = prop.getBoolean(true);
+        prop.setLanguageKey("forge.configgui.dimensionPreload");
+        propOrder.add(prop.getName());
+
+        prop = config.get(Configuration.CATEGORY_GENERAL, "pregenTickBudget", 20,
+                "The time in milliseconds of each server tick that /forge gen may spend generating chunks.", 1, 1000);
+        pregenTickBudget = prop.getInt(20);
+        prop.setLanguageKey("forge.configgui.pregenTickBudget");
+        propOrder.add(prop.getName());
+
+        prop = config.get(Configuration.CATEGORY_GENERAL, "pregenMaxLoadedChunks", 2048,
+                "The number of chunks /forge gen keeps loaded per dimension before unloading the oldest ones it generated.", 256, 65536);
+        pregenMaxLoadedChunks = prop.getInt(2048);
+        prop.setLanguageKey("forge.configgui.pregenMaxLoadedChunks");
+        propOrder.add(prop.getName());
+
         config.setCategoryPropertyOrder(CATEGORY_GENERAL, propOrder);
 
         propOrder = new ArrayList<String>();
@@ -331,6 +369,12 @@ public class ForgeModContainer extends DummyModContainer implements WorldAccessC
         prop.setLanguageKey("forge.configgui.alwaysSetupTerrainOffThread");
         propOrder.add(prop.getName());
 
+        prop = config.get(Configuration.CATEGORY_CLIENT, "parallelTextureLoading", true,
+                "Decode textures and generate their mipmaps on several threads while stitching the texture atlas. Sprites added by mods with their own sprite class or loader are always loaded on the main thread.");
+        parallelTextureLoading = prop.getBoolean(true);
+        prop.setLanguageKey("forge.configgui.parallelTextureLoading");
+        propOrder.add(prop.getName());
+
         prop = config.get(Configuration.CATEGORY_CLIENT, "biomeSkyBlendRange", new int[] { 2, 4, 6, 8, 10, 12, 14, 16, 18, 20, 22, 24, 26, 28, 30, 32, 34 });
         prop.setComment("Control the range of sky blending for colored skies in biomes.");
         prop.setLanguageKey("forge.configgui.biomeSkyBlendRange");
@@ -451,6 +495,7 @@ public class ForgeModContainer extends DummyModContainer implements WorldAccessC
         CapabilityAnimation.register();
         CapabilityEnergy.register();
         MinecraftForge.EVENT_BUS.register(MinecraftForge.INTERNAL_HANDLER);
+        MinecraftForge.EVENT_BUS.register(ChunkPregenerator.class);
         ForgeChunkManager.captureConfig(evt.getModConfigurationDirectory());
         MinecraftForge.EVENT_BUS.register(this);
 
@@ -22,12 +22,20 @@ package net.minecraftforge.common;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nullable;
 
@@ -35,7 +43,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
 import com.google.common.io.Files;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
@@ -51,18 +58,35 @@ import net.minecraftforge.fml.relauncher.FMLInjectionData;
  * last known username.<br>
  * For convenience, {@link #getMap()} is provided to get an immutable copy of
  * the caches underlying map.
+ * <p>
+ * Changes are appended to a journal by a single background thread and folded
+ * back into the main file once the journal grows large.
  */
 public final class UsernameCache {
 
-    private static Map<UUID, String> map = Maps.newHashMap();
+    private static final Map<UUID, String> map = new ConcurrentHashMap<UUID, String>();
 
     private static final Charset charset = StandardCharsets.UTF_8;
 
     private static final File saveFile = new File( /* The minecraft dir */(File) FMLInjectionData.data()[6], "usernamecache.json");
+    private static final File journalFile = new File(saveFile.getParentFile(), "usernamecache.journal");
     private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
+    /** How long the writer waits for more changes before writing them out */
+    private static final long COALESCE_MILLIS = 1000;
+    /** The journal is compacted once it has at least this many entries, and more than half as many as the cache */
+    private static final int MIN_COMPACT_ENTRIES = 1024;
+
     private static final Logger log = LogManager.getLogger(UsernameCache.class);
 
+    private static final SaveThread writer = new SaveThread();
+
+    static
+    {
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::writePending, "Username Cache Shutdown"));
+    }
+
     private UsernameCache() {}
 
     /**
@@ -78,10 +102,9 @@ public final class UsernameCache {
         checkNotNull(uuid);
         checkNotNull(username);
 
-        if (username.equals(map.get(uuid))) return;
+        if (username.equals(map.put(uuid, username))) return;
 
-        map.put(uuid, username);
-        save();
+        writer.queue(uuid, username);
     }
 
     /**
@@ -97,7 +120,7 @@ public final class UsernameCache {
 
         if (map.remove(uuid) != null)
         {
-            save();
+            writer.queue(uuid, null);
             return true;
         }
 
@@ -145,11 +168,11 @@ public final class UsernameCache {
     }
 
     /**
-     * Save the cache to file
+     * Save the whole cache to file, folding in the journal
      */
     protected static void save()
     {
-        new SaveThread(gson.toJson(map)).start();
+        writer.requestCompaction();
     }
 
     /**
@@ -157,60 +180,246 @@ public final class UsernameCache {
      */
     protected static void load()
     {
-        if (!saveFile.exists()) return;
-
-        try
+        map.clear();
+        if (saveFile.exists())
         {
+            try
+            {
 
-            String json = Files.toString(saveFile, charset);
-            Type type = new TypeToken<Map<UUID, String>>() { private static final long serialVersionUID = 1L; }.getType();
+                String json = Files.toString(saveFile, charset);
+                Type type = new TypeToken<Map<UUID, String>>() { private static final long serialVersionUID = 1L; }.getType();
 
-            map = gson.fromJson(json, type);
+                Map<UUID, String> loaded = gson.fromJson(json, type);
+                // Can sometimes be null when the json file is malformed
+                if (loaded != null)
+                {
+                    loaded.forEach((uuid, name) -> {
+                        if (uuid != null && name != null) map.put(uuid, name);
+                    });
+                }
+            }
+            catch (JsonSyntaxException e)
+            {
+                log.error("Could not parse username cache file as valid json, deleting file", e);
+                saveFile.delete();
+            }
+            catch (IOException e)
+            {
+                log.error("Failed to read username cache file from disk, deleting file", e);
+                saveFile.delete();
+            }
+        }
+
+        if (journalFile.exists())
+        {
+            replayJournal();
+            // Also when nothing was applied, later appends must not continue a torn last line
+            save();
         }
-        catch (JsonSyntaxException e)
+    }
+
+    /**
+     * Applies the changes journaled since the last full save.
+     *
+     * @return the number of entries applied
+     */
+    private static int replayJournal()
+    {
+        int count = 0;
+        try
         {
-            log.error("Could not parse username cache file as valid json, deleting file", e);
-            saveFile.delete();
+            count = Journal.replay(Files.toString(journalFile, charset), map);
         }
         catch (IOException e)
         {
-            log.error("Failed to read username cache file from disk, deleting file", e);
-            saveFile.delete();
+            log.error("Failed to read username cache journal from disk", e);
         }
-        finally
+        writer.journalEntries = count;
+        return count;
+    }
+
+    /**
+     * Parses journal contents. Kept apart from the cache itself so it can be used without a game directory.
+     */
+    static final class Journal
+    {
+        private static final Logger log = LogManager.getLogger(UsernameCache.class);
+
+        private Journal() {}
+
+        /**
+         * Applies every complete line of the journal to the map: a UUID and a name set that name, a UUID alone removes it.
+         * A last line without its line break was cut off by a crash mid-write and is ignored.
+         *
+         * @return the number of entries applied
+         */
+        static int replay(String journal, Map<UUID, String> map)
         {
-            // Can sometimes occur when the json file is malformed
-            if (map == null)
+            int end = journal.lastIndexOf('\n');
+            if (end + 1 < journal.length())
             {
-                map = Maps.newHashMap();
+                log.warn("Ignoring incomplete username cache journal entry: {}", journal.substring(end + 1));
+            }
+
+            int count = 0;
+            for (int start = 0; start <= end;)
+            {
+                int lineEnd = journal.indexOf('\n', start);
+                String line = journal.substring(start, lineEnd);
+                start = lineEnd + 1;
+                if (line.isEmpty())
+                    continue;
+
+                int split = line.indexOf(' ');
+                try
+                {
+                    UUID uuid = UUID.fromString(split == -1 ? line : line.substring(0, split));
+                    if (split == -1)
+                        map.remove(uuid);
+                    else
+                        map.put(uuid, line.substring(split + 1));
+                    count++;
+                }
+                catch (IllegalArgumentException e)
+                {
+                    log.warn("Skipping malformed username cache journal entry: {}", line);
+                }
             }
+            return count;
         }
     }
 
     /**
-     * Used for saving the {@link com.google.gson.Gson#toJson(Object) Gson}
-     * representation of the cache to disk
+     * Writes changes to disk in the background. Changes made in quick succession,
+     * such as during a burst of logins, are coalesced into a single append.
      */
     private static class SaveThread extends Thread {
 
-        /** The data that will be saved to disk */
-        private final String data;
+        /** Changes not yet written, a null name marks a removal */
+        private final Map<UUID, String> pending = new LinkedHashMap<UUID, String>();
+        private boolean compact;
+        /** Only touched while holding the saveFile lock, or before the first change is queued */
+        private int journalEntries;
+
+        public SaveThread()
+        {
+            super("Username Cache Writer");
+            setDaemon(true);
+        }
 
-        public SaveThread(String data)
+        synchronized void queue(UUID uuid, @Nullable String name)
         {
-            this.data = data;
+            pending.put(uuid, name);
+            notifyAll();
+        }
+
+        synchronized void requestCompaction()
+        {
+            compact = true;
+            notifyAll();
         }
 
         @Override
         public void run()
         {
+            while (true)
+            {
+                try
+                {
+                    synchronized (this)
+                    {
+                        while (pending.isEmpty() && !compact)
+                        {
+                            wait();
+                        }
+                    }
+                    Thread.sleep(COALESCE_MILLIS);
+                    writePending();
+                }
+                catch (InterruptedException e)
+                {
+                    return;
+                }
+                catch (RuntimeException e)
+                {
+                    log.error("Failed to save username cache to file!", e);
+                }
+            }
+        }
+
+        void writePending()
+        {
+            Map<UUID, String> changes;
+            boolean compactNow;
+            synchronized (this)
+            {
+                changes = new LinkedHashMap<UUID, String>(pending);
+                pending.clear();
+                compactNow = compact;
+                compact = false;
+            }
+
+            // Make sure we don't save when another thread is still saving
+            synchronized (saveFile)
+            {
+                if (!changes.isEmpty())
+                {
+                    appendJournal(changes);
+                }
+                if (compactNow || journalEntries >= Math.max(MIN_COMPACT_ENTRIES, map.size() / 2))
+                {
+                    compact();
+                }
+            }
+        }
+
+        private void appendJournal(Map<UUID, String> changes)
+        {
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(journalFile, true), charset))
+            {
+                StringBuilder buf = new StringBuilder();
+                for (Map.Entry<UUID, String> entry : changes.entrySet())
+                {
+                    buf.append(entry.getKey());
+                    if (entry.getValue() != null)
+                    {
+                        buf.append(' ').append(entry.getValue());
+                    }
+                    buf.append('\n');
+                }
+                out.write(buf.toString());
+                journalEntries += changes.size();
+            }
+            catch (IOException e)
+            {
+                log.error("Failed to append to username cache journal, saving the whole cache instead", e);
+                requestCompaction();
+            }
+        }
+
+        /**
+         * Writes the whole cache to a temporary file, moves it over the main file
+         * and then drops the journal, whose entries are now all part of it.
+         */
+        private void compact()
+        {
+            File tmp = new File(saveFile.getParentFile(), saveFile.getName() + ".tmp");
             try
             {
-                // Make sure we don't save when another thread is still saving
-                synchronized (saveFile)
+                Files.write(gson.toJson(new HashMap<UUID, String>(map)), tmp, charset);
+                try
+                {
+                    java.nio.file.Files.move(tmp.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+                catch (AtomicMoveNotSupportedException e)
+                {
+                    java.nio.file.Files.move(tmp.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                if (journalFile.exists() && !journalFile.delete())
                 {
-                    Files.write(data, saveFile, charset);
+                    log.warn("Could not delete username cache journal {}", journalFile);
                 }
+                journalEntries = 0;
             }
             catch (IOException e)
             {
@@ -218,4 +427,4 @@ public final class UsernameCache {
             }
         }
     }
-}
\ No newline at end of file
+}
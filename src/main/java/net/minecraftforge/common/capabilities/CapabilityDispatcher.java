@@ -30,6 +30,7 @@ import net.minecraft.nbt.NBTBase;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.common.util.IDirtyTracking;
 import net.minecraftforge.common.util.INBTSerializable;
 
 /**
@@ -42,7 +43,7 @@ import net.minecraftforge.common.util.INBTSerializable;
  * Internally the handlers are baked into arrays for fast iteration.
  * The ResourceLocations will be used for the NBT Key when serializing.
  */
-public final class CapabilityDispatcher implements INBTSerializable<NBTTagCompound>, ICapabilityProvider
+public final class CapabilityDispatcher implements INBTSerializable<NBTTagCompound>, ICapabilityProvider, IDirtyTracking
 {
     private ICapabilityProvider[] caps;
     private INBTSerializable<NBTBase>[] writers;
@@ -137,6 +138,35 @@ public final class CapabilityDispatcher implements INBTSerializable<NBTTagCompou
         }
     }
 
+    /**
+     * Only clean when every serializable provider implements {@link IDirtyTracking} and reports itself clean,
+     * anything else has to be assumed changed.
+     */
+    @Override
+    public boolean isDirty()
+    {
+        for (INBTSerializable<NBTBase> writer : writers)
+        {
+            if (!(writer instanceof IDirtyTracking) || ((IDirtyTracking)writer).isDirty())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void markClean()
+    {
+        for (INBTSerializable<NBTBase> writer : writers)
+        {
+            if (writer instanceof IDirtyTracking)
+            {
+                ((IDirtyTracking)writer).markClean();
+            }
+        }
+    }
+
     public boolean areCompatible(CapabilityDispatcher other) //Called from ItemStack to compare equality.
     {                                                        // Only compares serializeable caps.
         if (other == null) return this.writers.length == 0;  // Done this way so we can do some pre-checks before doing the costly NBT serialization and compare
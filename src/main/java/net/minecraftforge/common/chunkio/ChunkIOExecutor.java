@@ -34,6 +34,7 @@ import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.storage.AnvilChunkLoader;
 import net.minecraft.world.gen.ChunkProviderServer;
 import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.server.timings.TickProfiler;
 
 public class ChunkIOExecutor
 {
@@ -140,14 +141,21 @@ public class ChunkIOExecutor
 
     public static void tick()
     {
-        Iterator<ChunkIOProvider> itr = tasks.values().iterator();
+        Iterator<Map.Entry<QueuedChunk, ChunkIOProvider>> itr = tasks.entrySet().iterator();
         while (itr.hasNext())
         {
-            ChunkIOProvider task = itr.next();
+            Map.Entry<QueuedChunk, ChunkIOProvider> entry = itr.next();
+            ChunkIOProvider task = entry.getValue();
             if (task.runFinished())
             {
                 if (task.hasCallback())
+                {
+                    // The read happened on an IO thread, only the rest of the load is spent on this one
+                    QueuedChunk chunk = entry.getKey();
+                    long loadStart = TickProfiler.start(TickProfiler.Category.CHUNK_LOAD);
                     task.syncCallback();
+                    TickProfiler.endChunkLoad(loadStart, chunk.world, chunk.x, chunk.z);
+                }
 
                 itr.remove();
             }
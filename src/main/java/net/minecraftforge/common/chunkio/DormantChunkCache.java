@@ -0,0 +1,402 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.chunkio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.AnvilChunkLoader;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraft.world.gen.ChunkProviderServer;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.ChunkDataEvent;
+import net.minecraftforge.fml.common.FMLLog;
+
+/**
+ * Memory budgeted cache of recently unloaded chunks, shared by all dimensions.
+ * <p>
+ * Chunks are kept as the NBT {@link AnvilChunkLoader} wrote for them while unloading, not as live {@link Chunk}
+ * objects. That NBT is deflated on a background thread; until then the entry is accounted with an estimate based
+ * on the chunk's sections, tile entities and entities, afterwards with its exact compressed size. The least recently
+ * stored chunks are evicted once either the entry or the byte budget is exceeded, whatever dimension they are from.
+ * A hit removes the entry and rebuilds the chunk exactly as if it had been read from disk.
+ */
+public class DormantChunkCache
+{
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final int SECTION_ESTIMATE = 4096 + 2048 * 3; // Blocks, Data, BlockLight and SkyLight
+    private static final int COLUMN_ESTIMATE = 256 + 1024; // Biomes and HeightMap
+    private static final int TILE_ENTITY_ESTIMATE = 512;
+    private static final int ENTITY_ESTIMATE = 1024;
+
+    private static final Object lock = new Object();
+    // Hits remove their entry and stores re-insert, so insertion order is recency order
+    private static final LinkedHashMap<QueuedChunk, Entry> entries = new LinkedHashMap<QueuedChunk, Entry>();
+    private static final ExecutorService compressor = Executors.newSingleThreadExecutor(r ->
+    {
+        Thread thread = new Thread(r, "Forge Dormant Chunk Compressor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static volatile boolean enabled;
+    private static int maxEntries;
+    private static long maxBytes;
+    private static long bytes;
+    private static long hits;
+    private static long misses;
+    private static long stores;
+    private static long evictions;
+
+    // Handoff from AnvilChunkLoader.saveChunk to ForgeChunkManager.putDormantChunk, server thread only
+    private static AnvilChunkLoader savedLoader;
+    private static Chunk savedChunk;
+    private static NBTTagCompound savedData;
+
+    private static class Entry
+    {
+        private final QueuedChunk key;
+        private final AnvilChunkLoader loader;
+        @Nullable
+        private NBTTagCompound pending;
+        @Nullable
+        private byte[] data;
+        private long size;
+
+        private Entry(QueuedChunk key, AnvilChunkLoader loader, NBTTagCompound pending, long size)
+        {
+            this.key = key;
+            this.loader = loader;
+            this.pending = pending;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Sets the budgets of the cache. A maximum of zero entries disables and empties it.
+     */
+    public static void configure(int maxEntries, long maxBytes)
+    {
+        synchronized (lock)
+        {
+            DormantChunkCache.maxEntries = maxEntries;
+            DormantChunkCache.maxBytes = maxBytes;
+            enabled = maxEntries > 0 && maxBytes > 0;
+            evict();
+        }
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Not public API: called by {@link AnvilChunkLoader} with the data it is about to write for a chunk.
+     */
+    public static void onChunkSaved(AnvilChunkLoader loader, Chunk chunk, NBTTagCompound data)
+    {
+        if (enabled)
+        {
+            savedLoader = loader;
+            savedChunk = chunk;
+            savedData = data;
+        }
+    }
+
+    /**
+     * Stores an unloading chunk, using the data its loader just wrote for it. Chunks that were not saved through
+     * an {@link AnvilChunkLoader} right before are not cached.
+     */
+    public static void put(Chunk chunk)
+    {
+        AnvilChunkLoader loader = savedLoader;
+        NBTTagCompound data = savedData;
+        boolean matches = savedChunk == chunk;
+        savedLoader = null;
+        savedChunk = null;
+        savedData = null;
+        if (!enabled || !matches)
+        {
+            return;
+        }
+
+        QueuedChunk key = new QueuedChunk(chunk.x, chunk.z, chunk.getWorld());
+        Entry entry = new Entry(key, loader, data, estimateSize(chunk));
+        synchronized (lock)
+        {
+            Entry old = entries.remove(key);
+            if (old != null)
+            {
+                bytes -= old.size;
+            }
+            entries.put(key, entry);
+            bytes += entry.size;
+            stores++;
+            evict();
+        }
+        compressor.execute(() -> compress(entry));
+    }
+
+    /**
+     * Rebuilds a cached chunk of the world, or returns null if it is not cached. The chunk still has to be added to
+     * the chunk provider, see {@link ChunkProviderServer#loadChunk(int, int, Runnable)}.
+     */
+    @Nullable
+    public static Chunk fetch(World world, int x, int z)
+    {
+        if (!enabled || !(world instanceof WorldServer))
+        {
+            return null;
+        }
+        Entry entry;
+        NBTTagCompound pending;
+        byte[] data;
+        synchronized (lock)
+        {
+            entry = entries.remove(new QueuedChunk(x, z, world));
+            if (entry == null)
+            {
+                misses++;
+                return null;
+            }
+            hits++;
+            bytes -= entry.size;
+            pending = entry.pending;
+            data = entry.data;
+        }
+
+        NBTTagCompound nbt;
+        try
+        {
+            // The pending data may still be read by the file IO thread, never hand it out to event handlers
+            nbt = data != null ? inflate(data) : pending.copy();
+        }
+        catch (IOException e)
+        {
+            FMLLog.log.error("Failed to read dormant chunk {},{}, loading it from disk instead.", x, z, e);
+            return null;
+        }
+        Object[] ret = entry.loader.checkedReadChunkFromNBT__Async(world, x, z, nbt);
+        if (ret == null)
+        {
+            return null;
+        }
+        Chunk chunk = (Chunk)ret[0];
+        entry.loader.loadEntities(world, nbt.getCompoundTag("Level"), chunk);
+        MinecraftForge.EVENT_BUS.post(new ChunkDataEvent.Load(chunk, nbt));
+        chunk.setLastSaveTime(world.getTotalWorldTime());
+        ((WorldServer)world).getChunkProvider().chunkGenerator.recreateStructures(chunk, x, z);
+        return chunk;
+    }
+
+    /**
+     * Drops all cached chunks of an unloading world.
+     */
+    public static void clear(World world)
+    {
+        if (savedChunk != null && savedChunk.getWorld() == world)
+        {
+            savedLoader = null;
+            savedChunk = null;
+            savedData = null;
+        }
+        synchronized (lock)
+        {
+            for (Iterator<Entry> itr = entries.values().iterator(); itr.hasNext();)
+            {
+                Entry entry = itr.next();
+                if (entry.key.world == world)
+                {
+                    bytes -= entry.size;
+                    itr.remove();
+                }
+            }
+        }
+    }
+
+    public static int getEntryCount()
+    {
+        synchronized (lock)
+        {
+            return entries.size();
+        }
+    }
+
+    public static long getBytes()
+    {
+        synchronized (lock)
+        {
+            return bytes;
+        }
+    }
+
+    public static long getMaxBytes()
+    {
+        synchronized (lock)
+        {
+            return maxBytes;
+        }
+    }
+
+    public static long getHits()
+    {
+        synchronized (lock)
+        {
+            return hits;
+        }
+    }
+
+    public static long getMisses()
+    {
+        synchronized (lock)
+        {
+            return misses;
+        }
+    }
+
+    public static long getStores()
+    {
+        synchronized (lock)
+        {
+            return stores;
+        }
+    }
+
+    public static long getEvictions()
+    {
+        synchronized (lock)
+        {
+            return evictions;
+        }
+    }
+
+    private static void evict()
+    {
+        for (Iterator<Entry> itr = entries.values().iterator(); itr.hasNext() && (entries.size() > maxEntries || bytes > maxBytes);)
+        {
+            bytes -= itr.next().size;
+            itr.remove();
+            evictions++;
+        }
+    }
+
+    private static void compress(Entry entry)
+    {
+        NBTTagCompound pending;
+        synchronized (lock)
+        {
+            if (entries.get(entry.key) != entry)
+            {
+                return; // Already fetched, replaced or evicted
+            }
+            pending = entry.pending;
+        }
+        byte[] data;
+        try
+        {
+            data = deflate(pending);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            FMLLog.log.error("Failed to compress dormant chunk {},{}, dropping it from the cache.", entry.key.x, entry.key.z, e);
+            synchronized (lock)
+            {
+                if (entries.remove(entry.key, entry))
+                {
+                    bytes -= entry.size;
+                }
+            }
+            return;
+        }
+        synchronized (lock)
+        {
+            if (entries.get(entry.key) == entry)
+            {
+                long size = data.length + ENTRY_OVERHEAD;
+                bytes += size - entry.size;
+                entry.size = size;
+                entry.data = data;
+                entry.pending = null;
+                evict();
+            }
+        }
+    }
+
+    private static long estimateSize(Chunk chunk)
+    {
+        long size = ENTRY_OVERHEAD + COLUMN_ESTIMATE;
+        for (ExtendedBlockStorage storage : chunk.getBlockStorageArray())
+        {
+            if (storage != Chunk.NULL_BLOCK_STORAGE)
+            {
+                size += SECTION_ESTIMATE;
+            }
+        }
+        size += chunk.getTileEntityMap().size() * TILE_ENTITY_ESTIMATE;
+        for (ClassInheritanceMultiMap<Entity> entities : chunk.getEntityLists())
+        {
+            size += entities.size() * ENTITY_ESTIMATE;
+        }
+        return size;
+    }
+
+    private static byte[] deflate(NBTTagCompound nbt) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16384);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater, 8192)))
+        {
+            CompressedStreamTools.write(nbt, out);
+        }
+        finally
+        {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static NBTTagCompound inflate(byte[] data) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data))))
+        {
+            return CompressedStreamTools.read(in);
+        }
+    }
+}
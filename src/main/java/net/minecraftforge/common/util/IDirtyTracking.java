@@ -0,0 +1,38 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.util;
+
+/**
+ * Optional companion to {@link INBTSerializable} for world capability providers.
+ * Providers that implement it let world saves skip serializing them entirely while they are unchanged,
+ * providers that do not are serialized on every save and compared against what was last written.
+ */
+public interface IDirtyTracking
+{
+    /**
+     * @return true if this has changed since {@link #markClean()} was last called.
+     */
+    boolean isDirty();
+
+    /**
+     * Called once the current state has been serialized for saving.
+     */
+    void markClean();
+}
@@ -19,16 +19,44 @@
 
 package net.minecraftforge.common.util;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.WorldProvider;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.storage.IThreadedFileIO;
+import net.minecraft.world.storage.ThreadedFileIOBase;
 import net.minecraft.world.storage.WorldSavedData;
+import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.fml.common.FMLLog;
 
+/**
+ * Saves the capabilities attached to a world.
+ *
+ * MapStorage asks every piece of data whether it is dirty when the world saves, so that is where the
+ * capabilities are checked and, if they changed, snapshotted and handed to the file IO thread.
+ * MapStorage itself never writes this data for server worlds; {@link IDirtyTracking} providers that are clean are not even serialized.
+ */
 public class WorldCapabilityData extends WorldSavedData
 {
     public static final String ID = "capabilities";
 
     private INBTSerializable<NBTTagCompound> serializable;
     private NBTTagCompound capNBT = null;
+    private WorldProvider provider;
+    private File file;
+    // The last state handed off for writing, never modified once set so the IO thread can read it safely
+    private NBTTagCompound saved;
+    private int savedHash;
 
     public WorldCapabilityData(String name)
     {
@@ -45,6 +73,8 @@ public class WorldCapabilityData extends WorldSavedData
     public void readFromNBT(NBTTagCompound nbt)
     {
         this.capNBT = nbt;
+        this.saved = nbt.copy(); // Providers may keep and modify the tag they are given
+        this.savedHash = nbt.hashCode();
         if (serializable != null)
         {
             serializable.deserializeNBT(this.capNBT);
@@ -63,11 +93,35 @@ public class WorldCapabilityData extends WorldSavedData
     @Override
     public boolean isDirty()
     {
-        return true;
+        if (serializable == null)
+            return false;
+
+        File file = getFile();
+        if (file == null)
+            return true; // Not a server world, leave it to MapStorage as before
+
+        IDirtyTracking tracking = serializable instanceof IDirtyTracking ? (IDirtyTracking)serializable : null;
+        if (tracking != null && !tracking.isDirty())
+            return false;
+
+        NBTTagCompound nbt = serializable.serializeNBT();
+        if (tracking != null)
+            tracking.markClean();
+
+        int hash = nbt.hashCode();
+        if (this.saved != null && hash == this.savedHash && nbt.equals(this.saved))
+            return false;
+
+        NBTTagCompound snapshot = nbt.copy();
+        this.saved = snapshot;
+        this.savedHash = hash;
+        ThreadedFileIOBase.getThreadedIOInstance().queueIO(new Writer(file, snapshot));
+        return false;
     }
 
     public void setCapabilities(WorldProvider provider, INBTSerializable<NBTTagCompound> capabilities)
     {
+        this.provider = provider;
         this.serializable = capabilities;
         if (this.capNBT != null && serializable != null)
         {
@@ -75,4 +129,58 @@ public class WorldCapabilityData extends WorldSavedData
             this.capNBT = null;
         }
     }
+
+    @Nullable
+    private File getFile()
+    {
+        if (this.file == null && this.provider != null)
+        {
+            WorldServer world = DimensionManager.getWorld(this.provider.getDimension());
+            if (world != null && world.provider == this.provider)
+                this.file = new File(new File(world.getChunkSaveLocation(), "data"), ID + ".dat");
+        }
+        return this.file;
+    }
+
+    private static class Writer implements IThreadedFileIO
+    {
+        private final File file;
+        private final NBTTagCompound data;
+
+        private Writer(File file, NBTTagCompound data)
+        {
+            this.file = file;
+            this.data = data;
+        }
+
+        @Override
+        public boolean writeNextIO()
+        {
+            // Same layout MapStorage reads back
+            NBTTagCompound root = new NBTTagCompound();
+            root.setTag("data", data);
+            File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+            try
+            {
+                file.getParentFile().mkdirs();
+                try (OutputStream out = new FileOutputStream(tmp))
+                {
+                    CompressedStreamTools.writeCompressed(root, out);
+                }
+                try
+                {
+                    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+                catch (AtomicMoveNotSupportedException e)
+                {
+                    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            catch (IOException e)
+            {
+                FMLLog.log.error("Failed to save world capabilities to {}", file, e);
+            }
+            return false;
+        }
+    }
 }
@@ -31,6 +31,7 @@ import net.minecraftforge.event.terraingen.DecorateBiomeEvent.Decorate;
 import net.minecraftforge.event.terraingen.OreGenEvent.GenerateMinable;
 import net.minecraftforge.event.terraingen.PopulateChunkEvent.Populate;
 import net.minecraftforge.fml.common.eventhandler.Event.Result;
+import net.minecraftforge.server.timings.WorldGenProfiler;
 
 public abstract class TerrainGen
 {
@@ -50,6 +51,7 @@ public abstract class TerrainGen
 
     public static boolean populate(IChunkGenerator chunkProvider, World world, Random rand, int chunkX, int chunkZ, boolean hasVillageGenerated, Populate.EventType type)
     {
+        WorldGenProfiler.beginStep(world, "populate", type.name(), null);
         PopulateChunkEvent.Populate event = new PopulateChunkEvent.Populate(chunkProvider, world, rand, chunkX, chunkZ, hasVillageGenerated, type);
         MinecraftForge.TERRAIN_GEN_BUS.post(event);
         return event.getResult() != Result.DENY;
@@ -57,6 +59,7 @@ public abstract class TerrainGen
 
     public static boolean decorate(World world, Random rand, BlockPos pos, Decorate.EventType type)
     {
+        WorldGenProfiler.beginStep(world, "decorate", type.name(), null);
         Decorate event = new Decorate(world, rand, pos, type);
         MinecraftForge.TERRAIN_GEN_BUS.post(event);
         return event.getResult() != Result.DENY;
@@ -64,6 +67,7 @@ public abstract class TerrainGen
 
     public static boolean generateOre(World world, Random rand, WorldGenerator generator, BlockPos pos, GenerateMinable.EventType type)
     {
+        WorldGenProfiler.beginStep(world, "ore", type.name(), null);
         GenerateMinable event = new GenerateMinable(world, rand, generator, pos, type);
         MinecraftForge.ORE_GEN_BUS.post(event);
         return event.getResult() != Result.DENY;
@@ -955,13 +955,13 @@ public class FMLClientHandler implements IFMLSidedHandler
     private Set<String> badTextureDomains = Sets.newHashSet();
     private Table<String, String, Set<ResourceLocation>> brokenTextures = HashBasedTable.create();
 
-    public void trackMissingTexture(ResourceLocation resourceLocation)
+    public synchronized void trackMissingTexture(ResourceLocation resourceLocation)
     {
         badTextureDomains.add(resourceLocation.getResourceDomain());
         missingTextures.put(resourceLocation.getResourceDomain(),resourceLocation);
     }
 
-    public void trackBrokenTexture(ResourceLocation resourceLocation, String error)
+    public synchronized void trackBrokenTexture(ResourceLocation resourceLocation, String error)
     {
         badTextureDomains.add(resourceLocation.getResourceDomain());
         Set<ResourceLocation> badType = brokenTextures.get(resourceLocation.getResourceDomain(), error);
@@ -1054,6 +1054,8 @@ public class FMLClientHandler implements IFMLSidedHandler
     {
         // workaround for windows requiring messages being processed on the main thread
         if (LWJGLUtil.getPlatform() != LWJGLUtil.PLATFORM_WINDOWS) return;
+        // Mods loading in parallel report progress from worker threads
+        if (client != null && !client.isCallingFromMinecraftThread()) return;
         // If we can't grab the mutex, the update call is blocked, probably in native code, just skip it and carry on
         // We'll get another go next time
         if (!SplashProgress.mutex.tryAcquire()) return;
@@ -60,6 +60,10 @@ import javax.annotation.Nullable;
  */
 public final class FMLContainer extends DummyModContainer implements WorldAccessContainer
 {
+    // The id map last built by getDataForWriting, reused by autosaves while the registries are unchanged
+    private NBTTagCompound registries;
+    private int registryModCount = -1;
+
     public FMLContainer()
     {
         super(new ModMetadata());
@@ -118,11 +122,22 @@ public final class FMLContainer extends DummyModContainer implements WorldAccess
         }
         fmlData.setTag("ModList", modList);
 
-        NBTTagCompound registries = new NBTTagCompound();
+        int modCount = RegistryManager.ACTIVE.getModCount();
+        if (registries == null || modCount != registryModCount)
+        {
+            FMLLog.log.debug("Gathering id map for writing to world save {}", info.getWorldName());
+            registries = writeRegistries(RegistryManager.ACTIVE.takeSnapshot(true));
+            registryModCount = modCount;
+        }
+        // Only ever read by the level.dat writer, so the same tag can be handed out again
         fmlData.setTag("Registries", registries);
-        FMLLog.log.debug("Gathering id map for writing to world save {}", info.getWorldName());
+        return fmlData;
+    }
 
-        for (Map.Entry<ResourceLocation, ForgeRegistry.Snapshot> e : RegistryManager.ACTIVE.takeSnapshot(true).entrySet())
+    private static NBTTagCompound writeRegistries(Map<ResourceLocation, ForgeRegistry.Snapshot> snapshot)
+    {
+        NBTTagCompound registries = new NBTTagCompound();
+        for (Map.Entry<ResourceLocation, ForgeRegistry.Snapshot> e : snapshot.entrySet())
         {
             NBTTagCompound data = new NBTTagCompound();
             registries.setTag(e.getKey().toString(), data);
@@ -173,7 +188,7 @@ public final class FMLContainer extends DummyModContainer implements WorldAccess
             }
             data.setTag("dummied", dummied);
         }
-        return fmlData;
+        return registries;
     }
 
     @Override
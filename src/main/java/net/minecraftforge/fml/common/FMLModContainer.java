@@ -715,6 +715,14 @@ public class FMLModContainer implements ModContainer
         return value;
     }
 
+    /**
+     * @see Mod#parallelLoading()
+     */
+    public boolean isParallelLoading()
+    {
+        return isTrue((Boolean)descriptor.get("parallelLoading"));
+    }
+
     @Override
     public boolean shouldLoadInEnvironment()
     {
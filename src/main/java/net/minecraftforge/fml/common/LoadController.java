@@ -26,14 +26,24 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import net.minecraftforge.common.util.TextTable;
 import net.minecraftforge.fml.common.LoaderState.ModState;
 import net.minecraftforge.fml.common.ProgressManager.ProgressBar;
 import net.minecraftforge.fml.common.event.FMLEvent;
+import net.minecraftforge.fml.common.event.FMLInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLLoadEvent;
 import net.minecraftforge.fml.common.event.FMLModDisabledEvent;
+import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLStateEvent;
 import net.minecraftforge.fml.common.versioning.ArtifactVersion;
@@ -51,6 +61,7 @@ import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 import com.google.common.eventbus.SubscriberExceptionHandler;
@@ -64,11 +75,13 @@ public class LoadController
     private EventBus masterChannel;
     private ImmutableMap<String,EventBus> eventChannels;
     private LoaderState state;
-    private Multimap<String, ModState> modStates = ArrayListMultimap.create();
-    private Multimap<String, Throwable> errors = ArrayListMultimap.create();
+    private static final boolean PARALLEL_LOADING = !Boolean.parseBoolean(System.getProperty("fml.disableParallelLoading", "false"));
+    // Synchronized as mods marked for parallel loading report their state and errors from worker threads
+    private Multimap<String, ModState> modStates = Multimaps.synchronizedMultimap(ArrayListMultimap.create());
+    private Multimap<String, Throwable> errors = Multimaps.synchronizedMultimap(ArrayListMultimap.create());
     private Map<String, String> modNames = Maps.newHashMap();
     private List<ModContainer> activeModList = Lists.newArrayList();
-    private ModContainer activeContainer;
+    private final ThreadLocal<ModContainer> activeContainer = new ThreadLocal<ModContainer>();
     private BiMap<ModContainer, Object> modObjectList;
     private ListMultimap<String, ModContainer> packageOwners;
 
@@ -210,12 +223,13 @@ public class LoadController
     @Nullable
     public ModContainer activeContainer()
     {
-        return activeContainer != null ? activeContainer : findActiveContainerFromStack();
+        ModContainer container = activeContainer.get();
+        return container != null ? container : findActiveContainerFromStack();
     }
 
     void forceActiveContainer(@Nullable ModContainer container)
     {
-        activeContainer = container;
+        activeContainer.set(container);
     }
     @Subscribe
     public void propogateStateMessage(FMLEvent stateEvent)
@@ -225,14 +239,165 @@ public class LoadController
             modObjectList = buildModObjectList();
         }
         ProgressBar bar = ProgressManager.push(stateEvent.description(), activeModList.size(), true);
-        for (ModContainer mc : activeModList)
+        if (PARALLEL_LOADING && isParallelPhase(stateEvent))
         {
-            bar.step(mc.getName());
-            sendEventToModContainer(stateEvent, mc);
+            propogateStateMessageParallel(stateEvent, bar);
+        }
+        else
+        {
+            for (ModContainer mc : activeModList)
+            {
+                bar.step(mc.getName());
+                sendEventToModContainer(stateEvent, mc);
+            }
         }
         ProgressManager.pop(bar);
     }
 
+    private static boolean isParallelPhase(FMLEvent stateEvent)
+    {
+        // Construction stays serial, FML itself sets up class loading, networking and event subscribers for each mod there
+        return stateEvent instanceof FMLPreInitializationEvent || stateEvent instanceof FMLInitializationEvent || stateEvent instanceof FMLPostInitializationEvent;
+    }
+
+    private static boolean isParallelLoading(ModContainer mc)
+    {
+        return mc instanceof FMLModContainer && ((FMLModContainer)mc).isParallelLoading();
+    }
+
+    /**
+     * Walks the sorted mod list like the serial path, but runs each run of consecutive mods marked for
+     * {@link Mod#parallelLoading()} on a worker pool. Within a run a mod only waits for the mods it is ordered
+     * against, every other mod still runs alone on this thread, after everything before it has finished.
+     */
+    private void propogateStateMessageParallel(FMLEvent stateEvent, ProgressBar bar)
+    {
+        ExecutorService pool = null;
+        try
+        {
+            int i = 0;
+            while (i < activeModList.size())
+            {
+                ModContainer mc = activeModList.get(i);
+                if (!isParallelLoading(mc))
+                {
+                    bar.step(mc.getName());
+                    sendEventToModContainer(stateEvent, mc);
+                    i++;
+                    continue;
+                }
+
+                int end = i;
+                while (end < activeModList.size() && isParallelLoading(activeModList.get(end)))
+                {
+                    end++;
+                }
+                List<ModContainer> batch = activeModList.subList(i, end);
+                if (batch.size() == 1)
+                {
+                    bar.step(mc.getName());
+                    sendEventToModContainer(stateEvent, mc);
+                }
+                else
+                {
+                    if (pool == null)
+                    {
+                        pool = createLoadingPool();
+                    }
+                    runParallelBatch(stateEvent, batch, pool, bar);
+                }
+                i = end;
+            }
+        }
+        finally
+        {
+            if (pool != null)
+            {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private void runParallelBatch(FMLEvent stateEvent, List<ModContainer> batch, ExecutorService pool, ProgressBar bar)
+    {
+        FMLLog.log.debug("Sending {} to {} mods in parallel", stateEvent.getEventType(), batch.size());
+        BlockingQueue<ModContainer> finished = new LinkedBlockingQueue<ModContainer>();
+        List<CompletableFuture<Void>> tasks = Lists.newArrayListWithCapacity(batch.size());
+        for (int x = 0; x < batch.size(); x++)
+        {
+            ModContainer mc = batch.get(x);
+            List<CompletableFuture<Void>> before = Lists.newArrayList();
+            for (int y = 0; y < x; y++)
+            {
+                if (isOrderedAfter(mc, batch.get(y)))
+                {
+                    before.add(tasks.get(y));
+                }
+            }
+            CompletableFuture<Void> ready = CompletableFuture.allOf(before.toArray(new CompletableFuture[before.size()]));
+            tasks.add(ready.handleAsync((v, t) ->
+            {
+                try
+                {
+                    sendEventToModContainer(stateEvent.copyForMod(), mc);
+                }
+                catch (Throwable e)
+                {
+                    errorOccurred(mc, e);
+                }
+                finally
+                {
+                    finished.add(mc);
+                }
+                return null;
+            }, pool));
+        }
+
+        // Report progress from this thread, it is the only one allowed to pump the window
+        for (int done = 0; done < batch.size();)
+        {
+            try
+            {
+                ModContainer mc = finished.poll(100, TimeUnit.MILLISECONDS);
+                if (mc == null)
+                {
+                    FMLCommonHandler.instance().processWindowMessages();
+                    continue;
+                }
+                bar.step(mc.getName());
+                done++;
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new LoaderException(e);
+            }
+        }
+    }
+
+    /**
+     * If the mod sorter places mod after other, so it has to wait for it. Covers 'after' and 'before' constraints and their wildcards.
+     */
+    private static boolean isOrderedAfter(ModContainer mod, ModContainer other)
+    {
+        Set<String> after = mod.getDependencies().stream().map(ArtifactVersion::getLabel).collect(Collectors.toSet());
+        Set<String> before = other.getDependants().stream().map(ArtifactVersion::getLabel).collect(Collectors.toSet());
+        return after.contains("*") || after.contains(other.getModId()) || before.contains("*") || before.contains(mod.getModId());
+    }
+
+    private static ExecutorService createLoadingPool()
+    {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r ->
+        {
+            Thread thread = new Thread(r, "FML Mod Loader #" + count.incrementAndGet());
+            thread.setContextClassLoader(loader);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private void sendEventToModContainer(FMLEvent stateEvent, ModContainer mc)
     {
         String modId = mc.getModId();
@@ -246,14 +411,14 @@ public class LoadController
                 return;
             }
         }
-        activeContainer = mc;
+        activeContainer.set(mc);
         stateEvent.applyModContainer(mc);
         ThreadContext.put("mod", modId);
         LogManager.getLogger(modId).trace("Sending event {} to mod {}", stateEvent.getEventType(), modId);
         eventChannels.get(modId).post(stateEvent);
         LogManager.getLogger(modId).trace("Sent event {} to mod {}", stateEvent.getEventType(), modId);
         ThreadContext.remove("mod");
-        activeContainer = null;
+        activeContainer.remove();
         if (stateEvent instanceof FMLStateEvent)
         {
             if (!errors.containsKey(modId))
@@ -362,7 +527,7 @@ public class LoadController
     {
         if (modObjectList == null)
         {
-            FMLLog.log.fatal("Detected an attempt by a mod {} to perform game activity during mod construction. This is a serious programming error.", activeContainer);
+            FMLLog.log.fatal("Detected an attempt by a mod {} to perform game activity during mod construction. This is a serious programming error.", activeContainer.get());
             return buildModObjectList();
         }
         return ImmutableBiMap.copyOf(modObjectList);
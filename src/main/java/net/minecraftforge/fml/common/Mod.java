@@ -210,6 +210,19 @@ public @interface Mod
      */
     boolean canBeDeactivated() default false;
 
+    /**
+     * Set to true if this mod's pre-init, init and post-init handlers may run on a worker thread,
+     * at the same time as those of other mods that set this. They still run after all of the mod's dependencies.
+     * Registering and unregistering event handlers on any bus, and creating new buses, is safe. Handlers must not
+     * post events or touch other shared game state, such as registries, network channels or other mods' APIs,
+     * without synchronizing themselves.
+     * Mods that do not set this always run alone on the main thread, in the usual order.
+     * Parallel loading can be turned off for the whole game with the system property fml.disableParallelLoading.
+     *
+     * @return if this mod's lifecycle handlers are safe to run concurrently with other mods.
+     */
+    boolean parallelLoading() default false;
+
     /**
      * An optional GUI factory for this mod. This is the name of a class implementing {@link IModGuiFactory} that will be instantiated
      * on the client side, and will have certain configuration/options guis requested from it.
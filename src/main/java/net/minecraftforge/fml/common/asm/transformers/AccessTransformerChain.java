@@ -0,0 +1,61 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.common.asm.transformers;
+
+import java.util.List;
+
+import net.minecraft.launchwrapper.IClassTransformer;
+import net.minecraft.launchwrapper.Launch;
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.relauncher.CoreModManager;
+
+import com.google.common.collect.Lists;
+
+/**
+ * The access transformers from coremods and mod jars followed by the field redirects, run over a single parsed class.
+ */
+public class AccessTransformerChain extends ClassNodeTransformerChain
+{
+    public AccessTransformerChain() throws Exception
+    {
+        super(buildTransformers());
+    }
+
+    private static List<IClassTransformer> buildTransformers() throws Exception
+    {
+        List<IClassTransformer> transformers = Lists.newArrayList();
+        for (String transformer : CoreModManager.getAccessTransformers())
+        {
+            try
+            {
+                transformers.add((IClassTransformer) Launch.classLoader.loadClass(transformer).newInstance());
+            }
+            catch (Exception e)
+            {
+                FMLLog.log.error("A critical problem occurred registering the access transformer class {}", transformer, e);
+            }
+        }
+        transformers.add(new ModAccessTransformer());
+        transformers.add(new ItemStackTransformer());
+        transformers.add(new ItemBlockTransformer());
+        transformers.add(new ItemBlockSpecialTransformer());
+        return transformers;
+    }
+}
@@ -25,7 +25,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
-import net.minecraft.launchwrapper.IClassTransformer;
 import net.minecraftforge.fml.common.FMLLog;
 
 import org.apache.commons.lang3.JavaVersion;
@@ -33,10 +32,11 @@ import org.apache.commons.lang3.SystemUtils;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
 
 import com.google.common.collect.ImmutableSet;
 
-public class BlamingTransformer implements IClassTransformer
+public class BlamingTransformer implements IClassNodeTransformer
 {
     private static final Map<String, String> classMap = new HashMap<String, String>();
     private static final Set<String> naughtyMods = new HashSet<String>();
@@ -48,12 +48,27 @@ public class BlamingTransformer implements IClassTransformer
     {
         if (bytes == null) { return null; }
 
-        ClassReader classReader = new ClassReader(bytes);
-        VersionVisitor visitor = new VersionVisitor();
-        classReader.accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+        handlesClass(name, transformedName, new ClassReader(bytes));
         return bytes;
     }
 
+    /**
+     * Only looks at the class file version in the header, so this never needs the class parsed.
+     */
+    @Override
+    public boolean handlesClass(String name, String transformedName, ClassReader classReader)
+    {
+        // minor_version and major_version, in the same form as ClassVisitor.visit
+        checkVersion(classReader.readInt(4), classReader.getClassName());
+        return false;
+    }
+
+    @Override
+    public boolean transform(String name, String transformedName, ClassNode classNode)
+    {
+        return false;
+    }
+
     public static void blame(String modId, String cls)
     {
         naughtyClasses.add(cls);
@@ -71,12 +86,17 @@ public class BlamingTransformer implements IClassTransformer
         @Override
         public void visit(int version, int access, String name, String signature, String superName, String[] interfaces)
         {
-            if( (version == Opcodes.V1_8 && !SystemUtils.isJavaVersionAtLeast(JavaVersion.JAVA_1_8)) ||
-                (version == Opcodes.V1_7 && !SystemUtils.isJavaVersionAtLeast(JavaVersion.JAVA_1_7)) )
-            {
-                if(classMap.containsKey(name)) blame(classMap.get(name), name);
-                else orphanNaughtyClasses.add(name);
-            }
+            checkVersion(version, name);
+        }
+    }
+
+    private static void checkVersion(int version, String name)
+    {
+        if( (version == Opcodes.V1_8 && !SystemUtils.isJavaVersionAtLeast(JavaVersion.JAVA_1_8)) ||
+            (version == Opcodes.V1_7 && !SystemUtils.isJavaVersionAtLeast(JavaVersion.JAVA_1_7)) )
+        {
+            if(classMap.containsKey(name)) blame(classMap.get(name), name);
+            else orphanNaughtyClasses.add(name);
         }
     }
 
@@ -0,0 +1,282 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.common.asm.transformers;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import net.minecraft.launchwrapper.IClassTransformer;
+import net.minecraft.launchwrapper.Launch;
+import net.minecraft.launchwrapper.LaunchClassLoader;
+import net.minecraftforge.common.ForgeVersion;
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.asm.transformers.deobf.FMLDeobfuscatingRemapper;
+import net.minecraftforge.fml.relauncher.CoreModManager;
+import net.minecraftforge.fml.relauncher.FMLLaunchHandler;
+import net.minecraftforge.fml.relauncher.ModListHelper;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Stands in for every transformer registered before it and serves their combined output from an on-disk cache.
+ * Entries are keyed by a hash of the class name and untransformed bytes. The whole cache is tied to a fingerprint
+ * of the transformer chain: the registered transformers, the coremods and their access transformers, the files on
+ * the launch classpath, the jars in the mods directories, the access transformers in mod jars and the config files
+ * declared through {@link #addConfigDependency(File)}. Anything that changes one of those starts a new cache.
+ * <p>
+ * On a hit none of the wrapped transformers run, so transformers that keep state about the classes they see, or
+ * that depend on anything outside the fingerprint, will not work with it. It is therefore off unless
+ * {@code -Dfml.enableClassCache=true} is set. {@code -Dfml.verifyClassCache=true} additionally runs the real
+ * transformers on every cache hit and logs any class whose cached bytes differ.
+ */
+public class CachingTransformer implements IClassTransformer
+{
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("fml.enableClassCache", "false"));
+    private static final boolean VERIFY = Boolean.parseBoolean(System.getProperty("fml.verifyClassCache", "false"));
+    private static final String CACHE_FILE = "classes.bin";
+    private static final String CONFIG_DEPENDENCIES = "fml.classCacheConfigs";
+    // Written by the game itself on every launch, depending on them would make the cache useless
+    private static final Set<String> GAME_WRITTEN_CONFIGS = ImmutableSet.of("splash.properties");
+
+    private final List<IClassTransformer> transformers;
+    private final TransformedClassCache cache;
+
+    private CachingTransformer(List<IClassTransformer> transformers, TransformedClassCache cache)
+    {
+        this.transformers = transformers;
+        this.cache = cache;
+    }
+
+    /**
+     * Declares a config file whose contents change what a coremod's transformers produce, so that the class cache is
+     * rebuilt whenever the contents change. Has to be called before the game is launched, for example from
+     * {@link net.minecraftforge.fml.relauncher.IFMLLoadingPlugin#injectData(Map)}.
+     */
+    @SuppressWarnings("unchecked")
+    public static void addConfigDependency(File file)
+    {
+        if (GAME_WRITTEN_CONFIGS.contains(file.getName()))
+        {
+            FMLLog.log.debug("Ignoring class cache dependency on {}, it is rewritten on every launch", file);
+            return;
+        }
+        // The blackboard is shared by both class loaders, unlike the statics of this class
+        ((List<File>) Launch.blackboard.computeIfAbsent(CONFIG_DEPENDENCIES, k -> new ArrayList<File>())).add(file);
+    }
+
+    /**
+     * Replaces the transformers currently registered with the class loader by a single caching transformer that runs
+     * them. Transformers registered afterwards run after it, as they would have anyway.
+     */
+    @SuppressWarnings("unchecked")
+    public static void install(LaunchClassLoader classLoader)
+    {
+        if (!ENABLED)
+        {
+            return;
+        }
+        Boolean deobfuscated = (Boolean) Launch.blackboard.get("fml.deobfuscatedEnvironment");
+        if (deobfuscated != null && deobfuscated)
+        {
+            // Classes change without any jar changing in a development workspace
+            return;
+        }
+
+        try
+        {
+            Field field = LaunchClassLoader.class.getDeclaredField("transformers");
+            field.setAccessible(true);
+            List<IClassTransformer> registered = (List<IClassTransformer>) field.get(classLoader);
+            List<IClassTransformer> transformers = ImmutableList.copyOf(registered);
+
+            File file = new File(new File(Launch.minecraftHome, FMLDeobfuscatingRemapper.CACHE_DIR), CACHE_FILE);
+            TransformedClassCache cache = TransformedClassCache.open(file, fingerprint(classLoader, transformers));
+            if (cache == null)
+            {
+                return;
+            }
+
+            registered.clear();
+            registered.add(new CachingTransformer(transformers, cache));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                FMLLog.log.debug("Class cache: {} hits, {} misses", cache.hits.get(), cache.misses.get());
+                cache.close();
+            }, "FML class cache"));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            FMLLog.log.warn("Unable to install the class cache, classes will be transformed on every launch", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String fingerprint(LaunchClassLoader classLoader, List<IClassTransformer> transformers) throws ReflectiveOperationException
+    {
+        Hasher hasher = Hashing.sha1().newHasher();
+        hasher.putString(ForgeVersion.mcVersion, StandardCharsets.UTF_8);
+        hasher.putInt(ForgeVersion.majorVersion).putInt(ForgeVersion.minorVersion).putInt(ForgeVersion.revisionVersion).putInt(ForgeVersion.buildVersion);
+        hasher.putString(FMLLaunchHandler.side().name(), StandardCharsets.UTF_8);
+        for (IClassTransformer transformer : transformers)
+        {
+            hasher.putString(transformer.getClass().getName(), StandardCharsets.UTF_8);
+        }
+        for (Map.Entry<String, List<String>> e : CoreModManager.getTransformers().entrySet())
+        {
+            hasher.putString(e.getKey(), StandardCharsets.UTF_8);
+            for (String transformer : e.getValue())
+            {
+                hasher.putString(transformer, StandardCharsets.UTF_8);
+            }
+        }
+        for (String transformer : CoreModManager.getAccessTransformers())
+        {
+            hasher.putString(transformer, StandardCharsets.UTF_8);
+        }
+
+        // Mod access transformers and coremod classes live in these jars, so their size and timestamp stand in for them
+        for (URL source : classLoader.getSources())
+        {
+            try
+            {
+                putFile(hasher, "file".equals(source.getProtocol()) ? new File(source.toURI()) : null, source.toString());
+            }
+            catch (URISyntaxException | IllegalArgumentException e)
+            {
+                putFile(hasher, null, source.toString());
+            }
+        }
+        File modsDir = new File(Launch.minecraftHome, "mods");
+        putDirectory(hasher, modsDir);
+        putDirectory(hasher, new File(modsDir, ForgeVersion.mcVersion));
+        for (File mod : ModListHelper.additionalMods.values())
+        {
+            putFile(hasher, mod, mod.getPath());
+        }
+        for (Map.Entry<String, String> at : new TreeMap<String, String>(ModAccessTransformer.getEmbedded()).entrySet())
+        {
+            hasher.putString(at.getKey(), StandardCharsets.UTF_8).putString(at.getValue(), StandardCharsets.UTF_8);
+        }
+        // Only the configs coremods declare, the game and most mods rewrite their configs on every launch
+        List<File> configs = (List<File>) Launch.blackboard.get(CONFIG_DEPENDENCIES);
+        if (configs != null)
+        {
+            for (File config : configs)
+            {
+                hasher.putString(config.getPath(), StandardCharsets.UTF_8);
+                try
+                {
+                    hasher.putBytes(Files.readAllBytes(config.toPath()));
+                }
+                catch (IOException e)
+                {
+                    hasher.putLong(-1); // Missing or unreadable
+                }
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void putDirectory(Hasher hasher, File dir)
+    {
+        File[] files = dir.listFiles();
+        if (files == null)
+        {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files)
+        {
+            if (file.isFile())
+            {
+                putFile(hasher, file, file.getName());
+            }
+        }
+    }
+
+    private static void putFile(Hasher hasher, File file, String name)
+    {
+        hasher.putString(name, StandardCharsets.UTF_8);
+        if (file != null)
+        {
+            hasher.putLong(file.length()).putLong(file.lastModified());
+        }
+    }
+
+    @Override
+    public byte[] transform(String name, String transformedName, byte[] basicClass)
+    {
+        if (basicClass == null)
+        {
+            return runTransformers(name, transformedName, null);
+        }
+
+        HashCode key = Hashing.sha1().newHasher()
+                .putString(name, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(transformedName, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putBytes(basicClass)
+                .hash();
+        byte[] cached = cache.get(key);
+        if (cached != null && !VERIFY)
+        {
+            cache.hits.incrementAndGet();
+            return cached;
+        }
+
+        byte[] bytes = runTransformers(name, transformedName, basicClass);
+        if (cached != null)
+        {
+            cache.hits.incrementAndGet();
+            if (!Arrays.equals(cached, bytes))
+            {
+                FMLLog.log.warn("The cached transformation of {} does not match a fresh one, a transformer is not deterministic for this class", transformedName);
+            }
+        }
+        else if (bytes != null)
+        {
+            cache.misses.incrementAndGet();
+            cache.put(key, bytes);
+        }
+        return bytes;
+    }
+
+    private byte[] runTransformers(String name, String transformedName, byte[] bytes)
+    {
+        for (IClassTransformer transformer : transformers)
+        {
+            bytes = transformer.transform(name, transformedName, bytes);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.common.asm.transformers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import net.minecraft.launchwrapper.IClassTransformer;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Runs a fixed list of transformers as a single {@link IClassTransformer}.
+ * Consecutive {@link IClassNodeTransformer}s share one parsed {@link ClassNode}; the class is only parsed if one of
+ * them wants it and only written if one of them changed it. Plain transformers in the list still see bytes, so the
+ * tree is written out before them and parsed again afterwards if needed.
+ */
+public class ClassNodeTransformerChain implements IClassTransformer
+{
+    private final List<IClassTransformer> transformers;
+    // null where the transformer has to be run on bytes
+    private final IClassNodeTransformer[] nodeTransformers;
+
+    protected ClassNodeTransformerChain(List<IClassTransformer> transformers)
+    {
+        this.transformers = ImmutableList.copyOf(transformers);
+        this.nodeTransformers = new IClassNodeTransformer[this.transformers.size()];
+        for (int i = 0; i < nodeTransformers.length; i++)
+        {
+            IClassTransformer transformer = this.transformers.get(i);
+            if (transformer instanceof IClassNodeTransformer && !overridesByteTransform(transformer))
+            {
+                nodeTransformers[i] = (IClassNodeTransformer) transformer;
+            }
+        }
+    }
+
+    /**
+     * A subclass that overrides only the byte based transform, for example an access transformer from another coremod
+     * that adds its own processing, must keep seeing bytes.
+     */
+    private static boolean overridesByteTransform(IClassTransformer transformer)
+    {
+        try
+        {
+            Class<?> bytes = transformer.getClass().getMethod("transform", String.class, String.class, byte[].class).getDeclaringClass();
+            Class<?> tree = transformer.getClass().getMethod("transform", String.class, String.class, ClassNode.class).getDeclaringClass();
+            return bytes != tree;
+        }
+        catch (NoSuchMethodException e)
+        {
+            return true;
+        }
+    }
+
+    @Override
+    public byte[] transform(String name, String transformedName, byte[] basicClass)
+    {
+        byte[] bytes = basicClass;
+        ClassReader classReader = null;
+        ClassNode classNode = null;
+        int writerFlags = 0;
+        boolean dirty = false;
+
+        for (int i = 0; i < nodeTransformers.length; i++)
+        {
+            IClassNodeTransformer nodeTransformer = nodeTransformers[i];
+            if (nodeTransformer != null)
+            {
+                if (bytes == null)
+                {
+                    continue;
+                }
+                if (classReader == null)
+                {
+                    classReader = new ClassReader(bytes);
+                }
+                if (!nodeTransformer.handlesClass(name, transformedName, classReader))
+                {
+                    continue;
+                }
+                if (classNode == null)
+                {
+                    classNode = new ClassNode();
+                    classReader.accept(classNode, 0);
+                }
+                if (nodeTransformer.transform(name, transformedName, classNode))
+                {
+                    dirty = true;
+                    writerFlags |= nodeTransformer.getWriterFlags();
+                }
+            }
+            else
+            {
+                if (dirty)
+                {
+                    bytes = write(classNode, writerFlags);
+                    dirty = false;
+                    writerFlags = 0;
+                }
+                classReader = null;
+                classNode = null;
+                bytes = transformers.get(i).transform(name, transformedName, bytes);
+            }
+        }
+
+        return dirty ? write(classNode, writerFlags) : bytes;
+    }
+
+    /**
+     * Runs a single {@link IClassNodeTransformer} on raw bytes, for when it is registered on its own.
+     */
+    public static byte[] transform(IClassNodeTransformer transformer, String name, String transformedName, byte[] bytes)
+    {
+        if (bytes == null)
+        {
+            return null;
+        }
+        ClassReader classReader = new ClassReader(bytes);
+        if (!transformer.handlesClass(name, transformedName, classReader))
+        {
+            return bytes;
+        }
+        ClassNode classNode = new ClassNode();
+        classReader.accept(classNode, 0);
+        return transformer.transform(name, transformedName, classNode) ? write(classNode, transformer.getWriterFlags()) : bytes;
+    }
+
+    /**
+     * Checks the constant pool for a UTF8 entry equal to the given ASCII string, such as an annotation descriptor,
+     * without parsing the class.
+     */
+    public static boolean hasUtf8Constant(ClassReader classReader, String value)
+    {
+        byte[] expected = value.getBytes(StandardCharsets.US_ASCII);
+        byte[] b = classReader.b;
+        for (int i = 1; i < classReader.getItemCount(); i++)
+        {
+            int offset = classReader.getItem(i);
+            // long and double entries take two slots, the second of which has no offset
+            if (offset == 0 || b[offset - 1] != 1 /* CONSTANT_Utf8 */ || classReader.readUnsignedShort(offset) != expected.length)
+            {
+                continue;
+            }
+            int start = offset + 2;
+            boolean match = true;
+            for (int j = 0; j < expected.length; j++)
+            {
+                if (b[start + j] != expected[j])
+                {
+                    match = false;
+                    break;
+                }
+            }
+            if (match)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] write(ClassNode classNode, int writerFlags)
+    {
+        ClassWriter writer = new ClassWriter(writerFlags);
+        classNode.accept(writer);
+        return writer.toByteArray();
+    }
+}
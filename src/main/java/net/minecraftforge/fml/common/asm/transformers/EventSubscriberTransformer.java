@@ -22,10 +22,7 @@ package net.minecraftforge.fml.common.asm.transformers;
 import java.lang.reflect.Modifier;
 import java.util.List;
 
-import net.minecraft.launchwrapper.IClassTransformer;
-
 import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.AnnotationNode;
 import org.objectweb.asm.tree.ClassNode;
@@ -34,16 +31,25 @@ import org.objectweb.asm.tree.MethodNode;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 
-public class EventSubscriberTransformer implements IClassTransformer
+public class EventSubscriberTransformer implements IClassNodeTransformer
 {
+    private static final String SUBSCRIBE_EVENT_DESC = "Lnet/minecraftforge/fml/common/eventhandler/SubscribeEvent;";
+
     @Override
     public byte[] transform(String name, String transformedName, byte[] basicClass)
     {
-        if (basicClass == null) return null;
+        return ClassNodeTransformerChain.transform(this, name, transformedName, basicClass);
+    }
 
-        ClassNode classNode = new ClassNode();
-        new ClassReader(basicClass).accept(classNode, 0);
+    @Override
+    public boolean handlesClass(String name, String transformedName, ClassReader classReader)
+    {
+        return ClassNodeTransformerChain.hasUtf8Constant(classReader, SUBSCRIBE_EVENT_DESC);
+    }
 
+    @Override
+    public boolean transform(String name, String transformedName, ClassNode classNode)
+    {
         boolean isSubscriber = false;
 
         for (MethodNode methodNode : classNode.methods)
@@ -66,13 +72,9 @@ public class EventSubscriberTransformer implements IClassTransformer
         if (isSubscriber)
         {
             classNode.access = toPublic(classNode.access);
-
-            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
-            classNode.accept(writer);
-            return writer.toByteArray();
         }
 
-        return basicClass;
+        return isSubscriber;
     }
 
     private static int toPublic(int access)
@@ -87,7 +89,7 @@ public class EventSubscriberTransformer implements IClassTransformer
         @Override
         public boolean apply(AnnotationNode input)
         {
-            return input.desc.equals("Lnet/minecraftforge/fml/common/eventhandler/SubscribeEvent;");
+            return input.desc.equals(SUBSCRIBE_EVENT_DESC);
         }
     }
 }
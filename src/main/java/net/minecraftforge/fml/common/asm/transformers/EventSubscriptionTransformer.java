@@ -20,6 +20,7 @@
 package net.minecraftforge.fml.common.asm.transformers;
 
 import static org.objectweb.asm.ClassWriter.COMPUTE_FRAMES;
+import static org.objectweb.asm.Opcodes.ACC_INTERFACE;
 import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
 import static org.objectweb.asm.Opcodes.ACC_PROTECTED;
 import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
@@ -40,12 +41,10 @@ import static org.objectweb.asm.Type.VOID_TYPE;
 import static org.objectweb.asm.Type.BOOLEAN_TYPE;
 import static org.objectweb.asm.Type.getMethodDescriptor;
 
-import net.minecraft.launchwrapper.IClassTransformer;
 import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.fml.common.eventhandler.Event;
 
 import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.AnnotationNode;
 import org.objectweb.asm.tree.ClassNode;
@@ -60,7 +59,7 @@ import org.objectweb.asm.tree.MethodNode;
 import org.objectweb.asm.tree.TypeInsnNode;
 import org.objectweb.asm.tree.VarInsnNode;
 
-public class EventSubscriptionTransformer implements IClassTransformer
+public class EventSubscriptionTransformer implements IClassNodeTransformer
 {
     public EventSubscriptionTransformer()
     {
@@ -69,23 +68,26 @@ public class EventSubscriptionTransformer implements IClassTransformer
     @Override
     public byte[] transform(String name, String transformedName, byte[] bytes)
     {
-        if (bytes == null || name.equals("net.minecraftforge.fml.common.eventhandler.Event") || name.startsWith("net.minecraft.") || name.indexOf('.') == -1)
+        return ClassNodeTransformerChain.transform(this, name, transformedName, bytes);
+    }
+
+    @Override
+    public boolean handlesClass(String name, String transformedName, ClassReader classReader)
+    {
+        if (name.equals("net.minecraftforge.fml.common.eventhandler.Event") || name.startsWith("net.minecraft.") || name.indexOf('.') == -1)
         {
-            return bytes;
+            return false;
         }
-        ClassReader cr = new ClassReader(bytes);
-        ClassNode classNode = new ClassNode();
-        cr.accept(classNode, 0);
+        // Interfaces and direct subclasses of Object can never be events, no need to load anything to find out
+        return (classReader.getAccess() & ACC_INTERFACE) == 0 && !"java/lang/Object".equals(classReader.getSuperName());
+    }
 
+    @Override
+    public boolean transform(String name, String transformedName, ClassNode classNode)
+    {
         try
         {
-            if (buildEvents(classNode))
-            {
-                ClassWriter cw = new ClassWriter(COMPUTE_FRAMES);
-                classNode.accept(cw);
-                return cw.toByteArray();
-            }
-            return bytes;
+            return buildEvents(classNode);
         }
         catch (ClassNotFoundException ex)
         {
@@ -96,7 +98,13 @@ public class EventSubscriptionTransformer implements IClassTransformer
             FMLLog.log.error("Error building events.", e);
         }
 
-        return bytes;
+        return false;
+    }
+
+    @Override
+    public int getWriterFlags()
+    {
+        return COMPUTE_FRAMES;
     }
 
     private boolean buildEvents(ClassNode classNode) throws Exception
@@ -135,6 +143,12 @@ public class EventSubscriptionTransformer implements IClassTransformer
             if (method.name.equals("<init>") && method.desc.equals(voidDesc)) hasDefaultCtr = true;
         }
 
+        // Validate before editing anything, a failure has to leave the class untouched
+        if (hasSetup && !hasGetListenerList)
+        {
+            throw new RuntimeException("Event class defines setup() but does not define getListenerList! " + classNode.name);
+        }
+
         if (classNode.visibleAnnotations != null)
         {
             for (AnnotationNode node : classNode.visibleAnnotations)
@@ -172,10 +186,7 @@ public class EventSubscriptionTransformer implements IClassTransformer
 
         if (hasSetup)
         {
-            if (!hasGetListenerList)
-                throw new RuntimeException("Event class defines setup() but does not define getListenerList! " + classNode.name);
-            else
-                return edited;
+            return edited;
         }
 
         Type tSuper = Type.getType(classNode.superName);
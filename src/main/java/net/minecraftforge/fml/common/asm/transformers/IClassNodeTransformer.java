@@ -0,0 +1,59 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.common.asm.transformers;
+
+import net.minecraft.launchwrapper.IClassTransformer;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * A transformer that can operate on a shared {@link ClassNode} inside a {@link ClassNodeTransformerChain},
+ * so that a run of transformers parses and writes each class once instead of once per transformer.
+ * The byte based {@link IClassTransformer#transform} is still used when it is registered on its own,
+ * and is usually implemented with {@link ClassNodeTransformerChain#transform(IClassNodeTransformer, String, String, byte[])}.
+ */
+public interface IClassNodeTransformer extends IClassTransformer
+{
+    /**
+     * Cheap pre-filter, called before the class is parsed into a tree.
+     * The reader reflects the class as it entered the current run of the chain, so the answer must not depend
+     * on changes made by earlier members of the same run.
+     *
+     * @return false if {@link #transform} would never modify this class.
+     */
+    boolean handlesClass(String name, String transformedName, ClassReader classReader);
+
+    /**
+     * Transforms the class in place.
+     *
+     * @return true if the class was modified and needs to be written back out.
+     */
+    boolean transform(String name, String transformedName, ClassNode classNode);
+
+    /**
+     * The {@link ClassWriter} flags this transformer needs when it has modified a class.
+     */
+    default int getWriterFlags()
+    {
+        return ClassWriter.COMPUTE_MAXS;
+    }
+}
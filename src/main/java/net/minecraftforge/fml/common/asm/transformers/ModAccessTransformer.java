@@ -36,16 +36,10 @@ import com.google.common.io.CharSource;
 
 public class ModAccessTransformer extends AccessTransformer {
     private static Map<String, String> embedded = Maps.newHashMap(); //Needs to be primitive so that both classloaders get the same class.
-    @SuppressWarnings("unchecked")
 	public ModAccessTransformer() throws Exception
     {
         super(ModAccessTransformer.class);
-        //We are in the new ClassLoader here, so we need to get the static field from the other ClassLoader.
-        ClassLoader classLoader = this.getClass().getClassLoader().getClass().getClassLoader(); //Bit odd but it gets the class loader that loaded our current class loader yay java!
-        Class<?> otherClazz = Class.forName(this.getClass().getName(), true, classLoader);
-        Field otherField = otherClazz.getDeclaredField("embedded");
-        otherField.setAccessible(true);
-        embedded = (Map<String, String>)otherField.get(null);
+        embedded = getEmbedded();
 
         for (Map.Entry<String, String> e : embedded.entrySet())
         {
@@ -59,6 +53,21 @@ public class ModAccessTransformer extends AccessTransformer {
         }
     }
 
+    /**
+     * The contents of the access transformers found in mod jars, keyed by jar and file name.
+     * Only valid when called from the LaunchClassLoader, as the jars are added from its parent.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, String> getEmbedded() throws ReflectiveOperationException
+    {
+        //We are in the new ClassLoader here, so we need to get the static field from the other ClassLoader.
+        ClassLoader classLoader = ModAccessTransformer.class.getClassLoader().getClass().getClassLoader(); //Bit odd but it gets the class loader that loaded our current class loader yay java!
+        Class<?> otherClazz = Class.forName(ModAccessTransformer.class.getName(), true, classLoader);
+        Field otherField = otherClazz.getDeclaredField("embedded");
+        otherField.setAccessible(true);
+        return (Map<String, String>)otherField.get(null);
+    }
+
     public static void addJar(JarFile jar) throws IOException
     {
         Manifest manifest = jar.getManifest();
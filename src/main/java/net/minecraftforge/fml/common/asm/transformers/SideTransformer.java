@@ -24,12 +24,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 
-import net.minecraft.launchwrapper.IClassTransformer;
 import net.minecraftforge.fml.relauncher.FMLLaunchHandler;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Handle;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
@@ -40,19 +38,27 @@ import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FieldNode;
 import org.objectweb.asm.tree.MethodNode;
 
-public class SideTransformer implements IClassTransformer
+public class SideTransformer implements IClassNodeTransformer
 {
     private static String SIDE = FMLLaunchHandler.side().name();
+    private static final String SIDE_ONLY_DESC = Type.getDescriptor(SideOnly.class);
     private static final boolean DEBUG = false;
     @Override
     public byte[] transform(String name, String transformedName, byte[] bytes)
     {
-        if (bytes == null) { return null; }
+        return ClassNodeTransformerChain.transform(this, name, transformedName, bytes);
+    }
 
-        ClassNode classNode = new ClassNode();
-        ClassReader classReader = new ClassReader(bytes);
-        classReader.accept(classNode, 0);
+    @Override
+    public boolean handlesClass(String name, String transformedName, ClassReader classReader)
+    {
+        return ClassNodeTransformerChain.hasUtf8Constant(classReader, SIDE_ONLY_DESC);
+    }
 
+    @Override
+    public boolean transform(String name, String transformedName, ClassNode classNode)
+    {
+        boolean changed = false;
         if (remove(classNode.visibleAnnotations, SIDE))
         {
             if (DEBUG)
@@ -73,6 +79,7 @@ public class SideTransformer implements IClassTransformer
                     System.out.println(String.format("Removing Field: %s.%s", classNode.name, field.name));
                 }
                 fields.remove();
+                changed = true;
             }
         }
 
@@ -89,6 +96,7 @@ public class SideTransformer implements IClassTransformer
                 }
                 methods.remove();
                 lambdaGatherer.accept(method);
+                changed = true;
             }
         }
 
@@ -114,9 +122,7 @@ public class SideTransformer implements IClassTransformer
             }
         }
 
-        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
-        classNode.accept(writer);
-        return writer.toByteArray();
+        return changed;
     }
 
     private boolean remove(List<AnnotationNode> anns, String side)
@@ -127,7 +133,7 @@ public class SideTransformer implements IClassTransformer
         }
         for (AnnotationNode ann : anns)
         {
-            if (ann.desc.equals(Type.getDescriptor(SideOnly.class)))
+            if (ann.desc.equals(SIDE_ONLY_DESC))
             {
                 if (ann.values != null)
                 {
@@ -0,0 +1,307 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.common.asm.transformers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nullable;
+
+import net.minecraftforge.fml.common.FMLLog;
+
+import com.google.common.collect.Maps;
+import com.google.common.hash.HashCode;
+
+/**
+ * Append-only store of fully transformed class bytes, used by {@link CachingTransformer}.
+ * Each record is the 20 byte key, the data length, a CRC32 of the data and the data itself. Only the record headers
+ * are read at startup; data is read on a hit and checked against its CRC. A torn record at the end of the file,
+ * left by a crash, is cut off, and a file written for another fingerprint is discarded.
+ */
+final class TransformedClassCache
+{
+    private static final int MAGIC = 0x464D4C43; // FMLC
+    private static final int FORMAT = 1;
+    private static final int KEY_LENGTH = 20;
+    private static final int RECORD_HEADER = KEY_LENGTH + 8;
+    private static final int FLUSH_THRESHOLD = 1 << 20;
+
+    private static class Record
+    {
+        final long offset;
+        final int length;
+        final int crc;
+
+        Record(long offset, int length, int crc)
+        {
+            this.offset = offset;
+            this.length = length;
+            this.crc = crc;
+        }
+    }
+
+    private final File file;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private final Map<HashCode, Record> index;
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOut = new DataOutputStream(pending);
+    private long writePosition;
+    private boolean closed;
+
+    // Bumped by every class loading thread
+    final AtomicInteger hits = new AtomicInteger();
+    final AtomicInteger misses = new AtomicInteger();
+
+    private TransformedClassCache(File file, RandomAccessFile raf, Map<HashCode, Record> index, long writePosition)
+    {
+        this.file = file;
+        this.raf = raf;
+        this.channel = raf.getChannel();
+        this.index = index;
+        this.writePosition = writePosition;
+    }
+
+    /**
+     * Opens the cache file, or returns null if it cannot be used, for example because another instance holds it.
+     */
+    @Nullable
+    static TransformedClassCache open(File file, String fingerprint)
+    {
+        RandomAccessFile raf = null;
+        try
+        {
+            file.getParentFile().mkdirs();
+            raf = new RandomAccessFile(file, "rw");
+            FileChannel channel = raf.getChannel();
+            FileLock lock = channel.tryLock();
+            if (lock == null)
+            {
+                FMLLog.log.info("The class cache {} is in use by another instance, not caching classes", file);
+                raf.close();
+                return null;
+            }
+
+            byte[] fingerprintBytes = fingerprint.getBytes(StandardCharsets.UTF_8);
+            Map<HashCode, Record> index = Maps.newHashMap();
+            long end = readIndex(channel, fingerprintBytes, index);
+            if (end < 0)
+            {
+                if (channel.size() > 0)
+                {
+                    FMLLog.log.debug("Class cache {} was built for a different mod set, rebuilding", file);
+                }
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(10 + fingerprintBytes.length);
+                header.putInt(MAGIC).putInt(FORMAT).putShort((short) fingerprintBytes.length).put(fingerprintBytes);
+                header.flip();
+                channel.write(header, 0);
+                end = header.limit();
+            }
+            else if (end < channel.size())
+            {
+                FMLLog.log.debug("Discarding a partial record at the end of the class cache {}", file);
+                channel.truncate(end);
+            }
+            FMLLog.log.debug("Opened the class cache {} with {} classes", file, index.size());
+            return new TransformedClassCache(file, raf, index, end);
+        }
+        catch (IOException e)
+        {
+            FMLLog.log.warn("Unable to open the class cache {}, not caching classes", file, e);
+            if (raf != null)
+            {
+                try
+                {
+                    raf.close();
+                }
+                catch (IOException ignored)
+                {
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @return the end of the last complete record, or -1 if the file has to be started over.
+     */
+    private static long readIndex(FileChannel channel, byte[] fingerprint, Map<HashCode, Record> index) throws IOException
+    {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(10 + fingerprint.length);
+        if (size < header.capacity() || channel.read(header, 0) != header.capacity())
+        {
+            return -1;
+        }
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT || header.getShort() != fingerprint.length)
+        {
+            return -1;
+        }
+        byte[] stored = new byte[fingerprint.length];
+        header.get(stored);
+        if (!Arrays.equals(stored, fingerprint))
+        {
+            return -1;
+        }
+
+        long position = header.capacity();
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER);
+        while (position + RECORD_HEADER <= size)
+        {
+            recordHeader.clear();
+            if (channel.read(recordHeader, position) != RECORD_HEADER)
+            {
+                break;
+            }
+            recordHeader.flip();
+            byte[] key = new byte[KEY_LENGTH];
+            recordHeader.get(key);
+            int length = recordHeader.getInt();
+            int crc = recordHeader.getInt();
+            long dataStart = position + RECORD_HEADER;
+            if (length < 0 || dataStart + length > size)
+            {
+                break;
+            }
+            index.put(HashCode.fromBytes(key), new Record(dataStart, length, crc));
+            position = dataStart + length;
+        }
+        return position;
+    }
+
+    @Nullable
+    synchronized byte[] get(HashCode key)
+    {
+        Record record = index.get(key);
+        if (record == null || closed)
+        {
+            return null;
+        }
+        try
+        {
+            byte[] data = new byte[record.length];
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            long position = record.offset;
+            while (buf.hasRemaining())
+            {
+                int read = channel.read(buf, position + buf.position());
+                if (read < 0)
+                {
+                    break;
+                }
+            }
+            if (!buf.hasRemaining() && crc(data) == record.crc)
+            {
+                return data;
+            }
+            FMLLog.log.debug("Corrupt class cache entry {} in {}", key, file);
+        }
+        catch (IOException e)
+        {
+            FMLLog.log.debug("Unable to read class cache entry {} from {}", key, file, e);
+        }
+        index.remove(key);
+        return null;
+    }
+
+    synchronized void put(HashCode key, byte[] data)
+    {
+        if (closed)
+        {
+            return;
+        }
+        try
+        {
+            pendingOut.write(key.asBytes());
+            pendingOut.writeInt(data.length);
+            pendingOut.writeInt(crc(data));
+            pendingOut.write(data);
+            if (pending.size() >= FLUSH_THRESHOLD)
+            {
+                flush();
+            }
+        }
+        catch (IOException e)
+        {
+            FMLLog.log.warn("Unable to write to the class cache {}, not caching any more classes", file, e);
+            close();
+        }
+    }
+
+    synchronized void flush() throws IOException
+    {
+        if (pending.size() == 0)
+        {
+            return;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(pending.toByteArray());
+        while (buf.hasRemaining())
+        {
+            writePosition += channel.write(buf, writePosition);
+        }
+        pending.reset();
+    }
+
+    synchronized void close()
+    {
+        if (closed)
+        {
+            return;
+        }
+        try
+        {
+            flush();
+        }
+        catch (IOException e)
+        {
+            FMLLog.log.warn("Unable to write to the class cache {}", file, e);
+        }
+        closed = true;
+        index.clear();
+        try
+        {
+            raf.close();
+        }
+        catch (IOException e)
+        {
+            FMLLog.log.debug("Unable to close the class cache {}", file, e);
+        }
+    }
+
+    private static int crc(byte[] data)
+    {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return (int) crc.getValue();
+    }
+}
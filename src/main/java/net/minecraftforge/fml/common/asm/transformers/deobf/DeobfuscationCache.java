@@ -0,0 +1,191 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.common.asm.transformers.deobf;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+import net.minecraftforge.fml.common.FMLLog;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Binary cache of the tables {@link FMLDeobfuscatingRemapper} derives from the SRG data.
+ * Resolving the field descriptors needs every mapped class to be read, so rebuilding these
+ * tables on every launch is slow. The cache is keyed by a hash of its inputs and rebuilt
+ * whenever they change.
+ */
+final class DeobfuscationCache
+{
+    private static final int MAGIC = 0x464D4C44; // FMLD
+    private static final int FORMAT = 1;
+
+    private final File file;
+    private final String key;
+
+    BiMap<String, String> classNameBiMap;
+    Map<String, Map<String, String>> rawMethodMaps;
+    Map<String, Map<String, String>> rawFieldMaps;
+
+    DeobfuscationCache(File cacheDir, String key)
+    {
+        this.file = new File(cacheDir, "deobf_data.bin");
+        this.key = key;
+    }
+
+    /**
+     * @return true if the cache file exists, matches the key and was read completely.
+     */
+    boolean load()
+    {
+        if (!file.isFile())
+        {
+            return false;
+        }
+        try
+        {
+            // Read onto the heap rather than mapped, a mapped file can't be replaced on Windows until it is unmapped
+            ByteBuffer buf = ByteBuffer.wrap(java.nio.file.Files.readAllBytes(file.toPath()));
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT || !key.equals(readString(buf)))
+            {
+                FMLLog.log.debug("Deobfuscation cache {} is stale, rebuilding", file);
+                return false;
+            }
+            int classCount = buf.getInt();
+            ImmutableBiMap.Builder<String, String> classes = ImmutableBiMap.builder();
+            for (int i = 0; i < classCount; i++)
+            {
+                classes.put(readString(buf), readString(buf));
+            }
+            Map<String, Map<String, String>> methods = readMaps(buf);
+            Map<String, Map<String, String>> fields = readMaps(buf);
+            classNameBiMap = classes.build();
+            rawMethodMaps = methods;
+            rawFieldMaps = fields;
+            return true;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            FMLLog.log.warn("Unable to read the deobfuscation cache {}, rebuilding", file, e);
+            return false;
+        }
+    }
+
+    void save(BiMap<String, String> classNameBiMap, Map<String, Map<String, String>> rawMethodMaps, Map<String, Map<String, String>> rawFieldMaps)
+    {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try
+        {
+            if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs())
+            {
+                throw new IOException("Unable to create " + file.getParentFile());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))))
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                writeString(out, key);
+                out.writeInt(classNameBiMap.size());
+                for (Map.Entry<String, String> e : classNameBiMap.entrySet())
+                {
+                    writeString(out, e.getKey());
+                    writeString(out, e.getValue());
+                }
+                writeMaps(out, rawMethodMaps);
+                writeMaps(out, rawFieldMaps);
+            }
+            replace(tmp, file);
+        }
+        catch (IOException e)
+        {
+            FMLLog.log.warn("Unable to write the deobfuscation cache {}", file, e);
+            tmp.delete();
+        }
+    }
+
+    static void replace(File from, File to) throws IOException
+    {
+        try
+        {
+            java.nio.file.Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            java.nio.file.Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Map<String, Map<String, String>> readMaps(ByteBuffer buf)
+    {
+        int owners = buf.getInt();
+        Map<String, Map<String, String>> maps = Maps.newHashMapWithExpectedSize(owners);
+        for (int i = 0; i < owners; i++)
+        {
+            String owner = readString(buf);
+            int entries = buf.getInt();
+            Map<String, String> map = Maps.newHashMapWithExpectedSize(entries);
+            for (int j = 0; j < entries; j++)
+            {
+                map.put(readString(buf), readString(buf));
+            }
+            maps.put(owner, map);
+        }
+        return maps;
+    }
+
+    private static void writeMaps(DataOutputStream out, Map<String, Map<String, String>> maps) throws IOException
+    {
+        out.writeInt(maps.size());
+        for (Map.Entry<String, Map<String, String>> owner : maps.entrySet())
+        {
+            writeString(out, owner.getKey());
+            out.writeInt(owner.getValue().size());
+            for (Map.Entry<String, String> e : owner.getValue().entrySet())
+            {
+                writeString(out, e.getKey());
+                writeString(out, e.getValue());
+            }
+        }
+    }
+
+    private static String readString(ByteBuffer buf)
+    {
+        byte[] data = new byte[buf.getInt()];
+        buf.get(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException
+    {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(data.length);
+        out.write(data);
+    }
+}
@@ -19,6 +19,7 @@
 
 package net.minecraftforge.fml.common.asm.transformers.deobf;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -30,8 +31,10 @@ import java.util.Map;
 import java.util.Set;
 
 import net.minecraft.launchwrapper.LaunchClassLoader;
+import net.minecraftforge.common.ForgeVersion;
 import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.fml.common.patcher.ClassPatchManager;
+import net.minecraftforge.fml.relauncher.FMLLaunchHandler;
 
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.commons.Remapper;
@@ -50,6 +53,8 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.google.common.io.CharSource;
 import com.google.common.io.Files;
 
@@ -72,6 +77,8 @@ public class FMLDeobfuscatingRemapper extends Remapper {
     private static final boolean DEBUG_REMAPPING = Boolean.parseBoolean(System.getProperty("fml.remappingDebug", "false"));
     private static final boolean DUMP_FIELD_MAPS = Boolean.parseBoolean(System.getProperty("fml.remappingDebug.dumpFieldMaps", "false")) && DEBUG_REMAPPING;
     private static final boolean DUMP_METHOD_MAPS = Boolean.parseBoolean(System.getProperty("fml.remappingDebug.dumpMethodMaps", "false")) && DEBUG_REMAPPING;
+    private static final boolean USE_CACHE = !Boolean.parseBoolean(System.getProperty("fml.disableDeobfCache", "false"));
+    public static final String CACHE_DIR = "fmlcache";
 
     private FMLDeobfuscatingRemapper()
     {
@@ -123,13 +130,31 @@ public class FMLDeobfuscatingRemapper extends Remapper {
         try
         {
             List<String> srgList;
+            DeobfuscationCache cache = null;
             final String gradleStartProp = System.getProperty("net.minecraftforge.gradle.GradleStart.srg.srg-mcp");
 
             if (Strings.isNullOrEmpty(gradleStartProp))
             {
                 // get as a resource
-                InputStream classData = getClass().getResourceAsStream(deobfFileName);
-                LZMAInputSupplier zis = new LZMAInputSupplier(classData);
+                byte[] srgData = ByteStreams.toByteArray(getClass().getResourceAsStream(deobfFileName));
+                if (USE_CACHE)
+                {
+                    // the field descriptors come from the patched classes, which only change with the Forge build and side
+                    String key = Hashing.sha1().hashBytes(srgData) + ":" + FMLLaunchHandler.side() + ":" + ForgeVersion.mcVersion + "-" +
+                            ForgeVersion.majorVersion + "." + ForgeVersion.minorVersion + "." + ForgeVersion.revisionVersion + "." + ForgeVersion.buildVersion;
+                    cache = new DeobfuscationCache(new File(mcDir, CACHE_DIR), key);
+                    if (cache.load())
+                    {
+                        classNameBiMap = cache.classNameBiMap;
+                        rawMethodMaps = cache.rawMethodMaps;
+                        rawFieldMaps = cache.rawFieldMaps;
+                        methodNameMaps = Maps.newHashMapWithExpectedSize(rawMethodMaps.size());
+                        fieldNameMaps = Maps.newHashMapWithExpectedSize(rawFieldMaps.size());
+                        FMLLog.log.debug("Loaded deobfuscation data for {} classes from the cache", classNameBiMap.size());
+                        return;
+                    }
+                }
+                LZMAInputSupplier zis = new LZMAInputSupplier(new ByteArrayInputStream(srgData));
                 CharSource srgSource = zis.asCharSource(StandardCharsets.UTF_8);
                 srgList = srgSource.readLines();
                 FMLLog.log.debug("Loading deobfuscation resource {} with {} records", deobfFileName, srgList.size());
@@ -162,6 +187,10 @@ public class FMLDeobfuscatingRemapper extends Remapper {
                 }
             }
             classNameBiMap = builder.build();
+            if (cache != null)
+            {
+                cache.save(classNameBiMap, rawMethodMaps, rawFieldMaps);
+            }
         }
         catch (IOException ioe)
         {
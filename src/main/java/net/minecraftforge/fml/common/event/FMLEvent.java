@@ -39,4 +39,12 @@ public class FMLEvent
     public void applyModContainer(ModContainer activeContainer) {
         // NO OP
     }
+
+    /**
+     * The instance to deliver to a single mod when mods receive this event concurrently.
+     * Events that keep per mod state in {@link #applyModContainer(ModContainer)} must return a fresh copy.
+     */
+    public FMLEvent copyForMod() {
+        return this;
+    }
 }
@@ -73,6 +73,12 @@ public class FMLPreInitializationEvent extends FMLStateEvent
         return ModState.PREINITIALIZED;
     }
 
+    @Override
+    public FMLEvent copyForMod()
+    {
+        return new FMLPreInitializationEvent(asmData, configurationDir);
+    }
+
     @Override
     public void applyModContainer(ModContainer activeContainer)
     {
@@ -27,6 +27,7 @@ import java.lang.reflect.ParameterizedType;
 import java.util.HashMap;
 
 import net.minecraftforge.fml.common.ModContainer;
+import net.minecraftforge.server.timings.EventHandlerProfiler;
 
 import org.apache.logging.log4j.ThreadContext;
 import org.objectweb.asm.ClassWriter;
@@ -49,6 +50,7 @@ public class ASMEventHandler implements IEventListener
     private ModContainer owner;
     private String readable;
     private java.lang.reflect.Type filter = null;
+    private final EventHandlerProfiler.Listener timings;
 
     @Deprecated
     public ASMEventHandler(Object target, Method method, ModContainer owner) throws Exception
@@ -65,6 +67,7 @@ public class ASMEventHandler implements IEventListener
             handler = (IEventListener)createWrapper(method).getConstructor(Object.class).newInstance(target);
         subInfo = method.getAnnotation(SubscribeEvent.class);
         readable = "ASM: " + target + " " + method.getName() + Type.getMethodDescriptor(method);
+        timings = EventHandlerProfiler.register(owner, method.getParameterTypes()[0], method.getDeclaringClass().getName() + "." + method.getName());
         if (isGeneric)
         {
             java.lang.reflect.Type type = method.getGenericParameterTypes()[0];
@@ -87,7 +90,17 @@ public class ASMEventHandler implements IEventListener
             {
                 if (filter == null || filter == ((IGenericEvent)event).getGenericType())
                 {
-                    handler.invoke(event);
+                    if (EventHandlerProfiler.isEnabled())
+                    {
+                        long allocated = timings.startAllocations();
+                        long start = System.nanoTime();
+                        handler.invoke(event);
+                        timings.end(start, allocated);
+                    }
+                    else
+                    {
+                        handler.invoke(event);
+                    }
                 }
             }
         }
@@ -101,6 +114,15 @@ public class ASMEventHandler implements IEventListener
     }
 
     public Class<?> createWrapper(Method callback)
+    {
+        // Handlers may be created for different buses on different threads, and the cache and IDs are shared
+        synchronized (cache)
+        {
+            return createWrapperLocked(callback);
+        }
+    }
+
+    private Class<?> createWrapperLocked(Method callback)
     {
         if (cache.containsKey(callback))
         {
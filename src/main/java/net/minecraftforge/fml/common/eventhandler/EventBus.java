@@ -26,12 +26,14 @@ import java.util.ArrayList;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nonnull;
 
 import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.ModContainer;
+import net.minecraftforge.server.timings.TickProfiler;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
@@ -41,11 +43,13 @@ import com.google.common.reflect.TypeToken;
 
 public class EventBus implements IEventExceptionHandler
 {
-    private static int maxID = 0;
+    private static final AtomicInteger maxID = new AtomicInteger();
+    // Listener lists, event classes and handler wrappers are shared by all buses, so registration locks them all
+    private static final Object REGISTRATION_LOCK = new Object();
 
     private ConcurrentHashMap<Object, ArrayList<IEventListener>> listeners = new ConcurrentHashMap<Object, ArrayList<IEventListener>>();
     private Map<Object,ModContainer> listenerOwners = new MapMaker().weakKeys().weakValues().makeMap();
-    private final int busID = maxID++;
+    private final int busID = maxID.getAndIncrement();
     private IEventExceptionHandler exceptionHandler;
 
     public EventBus()
@@ -62,6 +66,14 @@ public class EventBus implements IEventExceptionHandler
     }
 
     public void register(Object target)
+    {
+        synchronized (REGISTRATION_LOCK)
+        {
+            registerLocked(target);
+        }
+    }
+
+    private void registerLocked(Object target)
     {
         if (listeners.containsKey(target))
         {
@@ -159,12 +171,15 @@ public class EventBus implements IEventExceptionHandler
 
     public void unregister(Object object)
     {
-        ArrayList<IEventListener> list = listeners.remove(object);
-        if(list == null)
-            return;
-        for (IEventListener listener : list)
+        synchronized (REGISTRATION_LOCK)
         {
-            ListenerList.unregisterAll(busID, listener);
+            ArrayList<IEventListener> list = listeners.remove(object);
+            if(list == null)
+                return;
+            for (IEventListener listener : list)
+            {
+                ListenerList.unregisterAll(busID, listener);
+            }
         }
     }
 
@@ -172,6 +187,7 @@ public class EventBus implements IEventExceptionHandler
     {
         IEventListener[] listeners = event.getListenerList().getListeners(busID);
         int index = 0;
+        long start = TickProfiler.start(TickProfiler.Category.EVENT);
         try
         {
             for (; index < listeners.length; index++)
@@ -185,6 +201,7 @@ public class EventBus implements IEventExceptionHandler
             Throwables.throwIfUnchecked(throwable);
             throw new RuntimeException(throwable);
         }
+        TickProfiler.end(start, event);
         return (event.isCancelable() ? event.isCanceled() : false);
     }
 
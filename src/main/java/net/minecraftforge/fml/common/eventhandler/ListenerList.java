@@ -44,8 +44,12 @@ public class ListenerList
     {
         // parent needs to be set before resize !
         this.parent = parent;
-        extendMasterList(this);
-        resizeLists(maxSize);
+        // a bus created meanwhile must either see this list or this list must see its size
+        synchronized (ListenerList.class)
+        {
+            extendMasterList(this);
+            resizeLists(maxSize);
+        }
     }
 
     private synchronized static void extendMasterList(ListenerList inst)
@@ -56,7 +60,7 @@ public class ListenerList
         allLists = builder.build();
     }
 
-    public static void resize(int max)
+    public synchronized static void resize(int max)
     {
         if (max <= maxSize)
         {
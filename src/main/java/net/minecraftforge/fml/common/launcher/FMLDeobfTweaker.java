@@ -26,7 +26,6 @@ import java.util.List;
 import net.minecraft.launchwrapper.ITweaker;
 import net.minecraft.launchwrapper.LaunchClassLoader;
 import net.minecraftforge.fml.common.FMLLog;
-import net.minecraftforge.fml.relauncher.CoreModManager;
 import net.minecraftforge.fml.relauncher.FMLInjectionData;
 
 public class FMLDeobfTweaker implements ITweaker {
@@ -40,15 +39,8 @@ public class FMLDeobfTweaker implements ITweaker {
     {
         // Deobfuscation transformer, always last, and the access transformer tweaker as well
         classLoader.registerTransformer("net.minecraftforge.fml.common.asm.transformers.DeobfuscationTransformer");
-        // Add all the access transformers now as well
-        for (String transformer : CoreModManager.getAccessTransformers())
-        {
-            classLoader.registerTransformer(transformer);
-        }
-        classLoader.registerTransformer("net.minecraftforge.fml.common.asm.transformers.ModAccessTransformer");
-        classLoader.registerTransformer("net.minecraftforge.fml.common.asm.transformers.ItemStackTransformer");
-        classLoader.registerTransformer("net.minecraftforge.fml.common.asm.transformers.ItemBlockTransformer");
-        classLoader.registerTransformer("net.minecraftforge.fml.common.asm.transformers.ItemBlockSpecialTransformer");
+        // Add all the access transformers now as well, together with the mod ATs and the field redirects
+        classLoader.registerTransformer("net.minecraftforge.fml.common.asm.transformers.AccessTransformerChain");
         try
         {
             FMLLog.log.debug("Validating minecraft");
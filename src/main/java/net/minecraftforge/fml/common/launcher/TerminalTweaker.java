@@ -23,12 +23,15 @@ import java.io.File;
 import java.util.List;
 import net.minecraft.launchwrapper.ITweaker;
 import net.minecraft.launchwrapper.LaunchClassLoader;
+import net.minecraftforge.fml.common.asm.transformers.CachingTransformer;
 
 public final class TerminalTweaker implements ITweaker {
     @Override
     public void injectIntoClassLoader(LaunchClassLoader classLoader)
     {
         classLoader.registerTransformer("net.minecraftforge.fml.common.asm.transformers.TerminalTransformer");
+        // Every tweaker has registered its transformers by now, so the whole chain can be cached
+        CachingTransformer.install(classLoader);
     }
 
     @Override
@@ -57,10 +57,13 @@ import net.minecraftforge.event.furnace.FurnaceFuelBurnTimeEvent;
 import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.fml.common.IFuelHandler;
 import net.minecraftforge.fml.common.IWorldGenerator;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.ModContainer;
 import net.minecraftforge.registries.GameData;
 import net.minecraftforge.registries.IForgeRegistry;
 import net.minecraftforge.registries.IForgeRegistryEntry;
 import net.minecraftforge.registries.RegistryManager;
+import net.minecraftforge.server.timings.WorldGenProfiler;
 import net.minecraftforge.fml.common.IEntitySelectorFactory;
 
 import com.google.common.base.Strings;
@@ -75,6 +78,7 @@ public class GameRegistry
 {
     private static Set<IWorldGenerator> worldGenerators = Sets.newHashSet();
     private static Map<IWorldGenerator, Integer> worldGeneratorIndex = Maps.newHashMap();
+    private static Map<IWorldGenerator, String> worldGeneratorOwners = Maps.newHashMap();
     private static List<IFuelHandler> fuelHandlers = Lists.newArrayList();
     private static List<IWorldGenerator> sortedGeneratorList;
     private static List<IEntitySelectorFactory> entitySelectorFactories = Lists.newArrayList();
@@ -90,6 +94,8 @@ public class GameRegistry
     {
         worldGenerators.add(generator);
         worldGeneratorIndex.put(generator, modGenerationWeight);
+        ModContainer owner = Loader.instance().activeModContainer();
+        worldGeneratorOwners.put(generator, owner == null ? "unknown" : owner.getModId());
         if (sortedGeneratorList != null)
         {
             sortedGeneratorList = null;
@@ -161,8 +167,13 @@ public class GameRegistry
         long zSeed = fmlRandom.nextLong() >> 2 + 1L;
         long chunkSeed = (xSeed * chunkX + zSeed * chunkZ) ^ worldSeed;
 
+        boolean profiling = WorldGenProfiler.isEnabled();
         for (IWorldGenerator generator : sortedGeneratorList)
         {
+            if (profiling)
+            {
+                WorldGenProfiler.beginStep(world, "generator", generator.getClass().getName(), worldGeneratorOwners.get(generator));
+            }
             fmlRandom.setSeed(chunkSeed);
             generator.generate(fmlRandom, chunkX, chunkZ, world, chunkGenerator, chunkProvider);
         }
@@ -37,7 +37,8 @@ class ItemStackHolderRef {
     private String itemName;
     private int meta;
     private String serializednbt;
-
+    // Created once per field instead of on every injection
+    private Object fieldAccessor;
 
     ItemStackHolderRef(Field field, String itemName, int meta, String serializednbt)
     {
@@ -46,6 +47,14 @@ class ItemStackHolderRef {
         this.meta = meta;
         this.serializednbt = serializednbt;
         makeWritable(field);
+        try
+        {
+            this.fieldAccessor = newFieldAccessor.invoke(reflectionFactory, field, false);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new RuntimeException(e);
+        }
     }
 
     private static Field modifiersField;
@@ -86,12 +95,11 @@ class ItemStackHolderRef {
         }
         try
         {
-            Object fieldAccessor = newFieldAccessor.invoke(reflectionFactory, field, false);
             fieldAccessorSet.invoke(fieldAccessor, null, is);
         }
         catch (Exception e)
         {
-            FMLLog.log.warn("Unable to set {} with value {},{},{}", this.field, this.itemName, this.meta, this.serializednbt);
+            FMLLog.log.warn("Unable to set {} with value {},{},{}", this.field, this.itemName, this.meta, this.serializednbt, e);
         }
     }
 }
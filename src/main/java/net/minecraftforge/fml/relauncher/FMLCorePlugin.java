@@ -26,11 +26,9 @@ public class FMLCorePlugin implements IFMLLoadingPlugin
     @Override
     public String[] getASMTransformerClass()
     {
+        // Blaming, Side, EventSubscription and EventSubscriber, sharing one parse of each class
         return new String[] {
-                             "net.minecraftforge.fml.common.asm.transformers.BlamingTransformer",
-                             "net.minecraftforge.fml.common.asm.transformers.SideTransformer",
-                             "net.minecraftforge.fml.common.asm.transformers.EventSubscriptionTransformer",
-                             "net.minecraftforge.fml.common.asm.transformers.EventSubscriberTransformer",
+                             "net.minecraftforge.fml.common.asm.transformers.CoreTransformerChain",
                             };
     }
 
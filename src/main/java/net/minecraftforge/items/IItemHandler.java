@@ -22,6 +22,9 @@ package net.minecraftforge.items;
 import net.minecraft.item.ItemStack;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.BitSet;
+import java.util.function.Predicate;
 
 public interface IItemHandler
 {
@@ -88,4 +91,80 @@ public interface IItemHandler
      * @return     The maximum stack size allowed in the slot.
      */
     int getSlotLimit(int slot);
+
+    /**
+     * Visits every slot of this handler in ascending order, stopping early if the visitor returns false.
+     *
+     * Handlers that wrap other handlers or own their storage should override this to walk their
+     * contents directly instead of routing every slot through {@link #getStackInSlot(int)}, as long as
+     * {@link ItemHandlerHelper#canVisitSlotsDirectly} allows it for the handler's class.
+     *
+     * @param visitor Visitor called for each slot.
+     * @return true if every slot was visited, false if the visitor stopped early.
+     */
+    default boolean visitSlots(ISlotVisitor visitor)
+    {
+        return ItemHandlerHelper.visitSlotsByIndex(this, visitor);
+    }
+
+    /**
+     * Moves up to maxAmount items out of this handler and into dest, walking the slots of this handler in order.
+     * Every slot is simulated on both handlers before anything is moved, so nothing leaves this handler
+     * unless dest accepts it.
+     *
+     * Handlers that own their storage should override this to skip empty and filtered slots without copying, and
+     * move the rest with {@link ItemHandlerHelper#transferSlot}. The default implementation is {@link ItemHandlerHelper#transferItems}.
+     *
+     * @param dest      Handler to insert into.
+     * @param maxAmount Maximum number of items to move.
+     * @param filter    Only stacks matching this filter are moved, null to move anything.
+     * @param simulate  If true, the transfer is only simulated
+     * @return The number of items moved, or that would have been moved if simulating.
+     */
+    default int transferTo(IItemHandler dest, int maxAmount, @Nullable Predicate<ItemStack> filter, boolean simulate)
+    {
+        return ItemHandlerHelper.transferItems(this, dest, maxAmount, filter, simulate);
+    }
+
+    /**
+     * Returns a counter that increases every time the contents of this handler change.
+     * Consumers can cache values derived from the contents, like comparator output, and only
+     * recompute them when the version differs from the one they were computed at.
+     *
+     * @return The current content version, or a negative value if this handler cannot detect changes.
+     */
+    default long getContentVersion()
+    {
+        return -1;
+    }
+
+    /**
+     * Adds every slot that changed since the last {@link #clearDirtySlots()} to the given set.
+     *
+     * @param dirtySlots Set to add the changed slot indices to.
+     * @return false if this handler cannot detect changes, in which case every slot must be treated as changed.
+     */
+    default boolean collectDirtySlots(BitSet dirtySlots)
+    {
+        return false;
+    }
+
+    /**
+     * Forgets all slot changes collected so far. Wrappers clear the dirty slots they expose of the handlers they wrap.
+     */
+    default void clearDirtySlots()
+    {
+    }
+
+    /**
+     * Forgets the slot changes collected so far for the slots from fromSlot (inclusive) to toSlot (exclusive) only.
+     * Used by wrappers that expose part of a handler, so they don't drop changes other views still have to see.
+     * Handlers that can't clear a range keep reporting those slots as changed, which is always safe.
+     *
+     * @param fromSlot First slot to clear.
+     * @param toSlot   Slot after the last slot to clear.
+     */
+    default void clearDirtySlots(int fromSlot, int toSlot)
+    {
+    }
 }
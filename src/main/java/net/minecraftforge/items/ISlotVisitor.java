@@ -0,0 +1,43 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.items;
+
+import net.minecraft.item.ItemStack;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Callback used by {@link IItemHandler#visitSlots(ISlotVisitor)} to walk the contents of a handler.
+ */
+@FunctionalInterface
+public interface ISlotVisitor
+{
+    /**
+     * Called once for every slot of the visited handler, in ascending slot order.
+     *
+     * The stack MUST NOT be modified, the same rules as {@link IItemHandler#getStackInSlot(int)} apply.
+     * The visitor may insert into or extract from the slot currently being visited through the visited handler.
+     *
+     * @param slot  Slot index, relative to the handler visitSlots was called on.
+     * @param stack ItemStack in the slot.
+     * @return true to continue with the next slot, false to stop visiting.
+     */
+    boolean visit(int slot, @Nonnull ItemStack stack);
+}
@@ -27,13 +27,60 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
+import net.minecraftforge.fml.common.FMLLog;
 import net.minecraftforge.items.wrapper.PlayerMainInvWrapper;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.function.Predicate;
 
 public class ItemHandlerHelper
 {
+    // The classes that declare getSlots and getStackInSlot for each handler class
+    private static final ClassValue<Class<?>[]> SLOT_ACCESSORS = new ClassValue<Class<?>[]>()
+    {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type)
+        {
+            try
+            {
+                return new Class<?>[] { type.getMethod("getSlots").getDeclaringClass(), type.getMethod("getStackInSlot", int.class).getDeclaringClass() };
+            }
+            catch (NoSuchMethodException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    /**
+     * Whether an {@link IItemHandler#visitSlots} override declared in base may read the handler's storage directly.
+     * That is only the case if the handler's class doesn't override {@code getSlots} or {@code getStackInSlot} of base,
+     * otherwise the slots have to be visited through them with {@link #visitSlotsByIndex}.
+     */
+    public static boolean canVisitSlotsDirectly(IItemHandler handler, Class<?> base)
+    {
+        Class<?>[] accessors = SLOT_ACCESSORS.get(handler.getClass());
+        return accessors[0] == base && accessors[1] == base;
+    }
+
+    /**
+     * Visits the slots of the handler through {@link IItemHandler#getSlots()} and {@link IItemHandler#getStackInSlot(int)}.
+     * This is the default implementation of {@link IItemHandler#visitSlots}.
+     */
+    public static boolean visitSlotsByIndex(IItemHandler handler, ISlotVisitor visitor)
+    {
+        int slots = handler.getSlots();
+        for (int i = 0; i < slots; i++)
+        {
+            if (!visitor.visit(i, handler.getStackInSlot(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Nonnull
     public static ItemStack insertItem(IItemHandler dest, @Nonnull ItemStack stack, boolean simulate)
     {
@@ -52,6 +99,80 @@ public class ItemHandlerHelper
         return stack;
     }
 
+    /**
+     * Moves up to maxAmount items from source into dest, one source slot at a time.
+     * This is the fallback used by {@link IItemHandler#transferTo}; every slot is extracted and inserted
+     * in simulation first and only the amount dest accepted is moved.
+     *
+     * @return The number of items moved, or that would have been moved if simulating.
+     */
+    public static int transferItems(IItemHandler source, IItemHandler dest, int maxAmount, @Nullable Predicate<ItemStack> filter, boolean simulate)
+    {
+        if (source == null || dest == null || maxAmount <= 0)
+            return 0;
+
+        int remaining = maxAmount;
+        for (int i = 0; i < source.getSlots() && remaining > 0; i++)
+        {
+            remaining -= transferSlot(source, i, dest, remaining, filter, simulate);
+        }
+
+        return maxAmount - remaining;
+    }
+
+    /**
+     * Moves up to maxAmount items out of one slot of source into dest. This is the per-slot step of
+     * {@link #transferItems}, for {@link IItemHandler#transferTo} overrides that pick the slots themselves.
+     * The slot is extracted from and dest inserted into in simulation first, and only the amount dest accepted is moved.
+     *
+     * @return The number of items moved, or that would have been moved if simulating.
+     */
+    public static int transferSlot(IItemHandler source, int slot, IItemHandler dest, int maxAmount, @Nullable Predicate<ItemStack> filter, boolean simulate)
+    {
+        ItemStack offer = source.extractItem(slot, maxAmount, true);
+        if (offer.isEmpty() || (filter != null && !filter.test(offer)))
+            return 0;
+
+        int accepted = offer.getCount() - insertItem(dest, offer, true).getCount();
+        if (accepted <= 0 || simulate)
+            return Math.max(accepted, 0);
+
+        // only what dest accepted in simulation is extracted, and the source may hand out less than that
+        ItemStack extracted = source.extractItem(slot, accepted, false);
+        ItemStack leftover = insertItem(dest, extracted, false);
+        if (!leftover.isEmpty())
+        {
+            returnLeftover(source, slot, dest, leftover);
+        }
+        return extracted.getCount() - leftover.getCount();
+    }
+
+    // dest did not honour its simulation, hand the rest back to the source
+    private static void returnLeftover(IItemHandler source, int slot, IItemHandler dest, @Nonnull ItemStack leftover)
+    {
+        leftover = source.insertItem(slot, leftover, false);
+        if (!leftover.isEmpty() && source instanceof IItemHandlerModifiable)
+        {
+            // the slot may refuse insertion, like an output slot, but it held these items a moment ago
+            ItemStack current = source.getStackInSlot(slot);
+            if (current.isEmpty() || canItemStacksStack(current, leftover))
+            {
+                int limit = Math.min(source.getSlotLimit(slot), leftover.getMaxStackSize());
+                int restored = Math.min(limit - current.getCount(), leftover.getCount());
+                if (restored > 0)
+                {
+                    ((IItemHandlerModifiable) source).setStackInSlot(slot, copyStackWithSize(leftover, current.getCount() + restored));
+                    leftover = copyStackWithSize(leftover, leftover.getCount() - restored);
+                }
+            }
+        }
+        leftover = insertItem(source, leftover, false);
+        if (!leftover.isEmpty())
+        {
+            FMLLog.log.error("Lost {} while transferring items: {} did not accept what it simulated and {} could not take it back", leftover, dest, source);
+        }
+    }
+
     public static boolean canItemStacksStack(@Nonnull ItemStack a, @Nonnull ItemStack b)
     {
         if (a.isEmpty() || !a.isItemEqual(b) || a.hasTagCompound() != b.hasTagCompound())
@@ -111,41 +232,56 @@ public class ItemHandlerHelper
             return insertItem(inventory, stack, simulate);
         }
 
-        int sizeInventory = inventory.getSlots();
+        StackedInserter inserter = new StackedInserter(inventory, stack, simulate);
 
         // go through the inventory and try to fill up already existing items
-        for (int i = 0; i < sizeInventory; i++)
+        if (inserter.fillExisting())
         {
-            ItemStack slot = inventory.getStackInSlot(i);
-            if (canItemStacksStackRelaxed(slot, stack))
-            {
-                stack = inventory.insertItem(i, stack, simulate);
+            // insert remainder into empty slots
+            inserter.fillEmpty();
+        }
 
-                if (stack.isEmpty())
-                {
-                    break;
-                }
-            }
+        return inserter.stack;
+    }
+
+    // walks the inventory once per pass via IItemHandler#visitSlots, so wrappers don't route every slot lookup
+    private static final class StackedInserter implements ISlotVisitor
+    {
+        private final IItemHandler inventory;
+        private final boolean simulate;
+        private boolean emptyPass;
+        @Nonnull
+        private ItemStack stack;
+
+        private StackedInserter(IItemHandler inventory, @Nonnull ItemStack stack, boolean simulate)
+        {
+            this.inventory = inventory;
+            this.stack = stack;
+            this.simulate = simulate;
+        }
+
+        // returns true if every slot was visited without inserting the whole stack
+        private boolean fillExisting()
+        {
+            emptyPass = false;
+            return inventory.visitSlots(this);
         }
 
-        // insert remainder into empty slots
-        if (!stack.isEmpty())
+        private void fillEmpty()
         {
-            // find empty slot
-            for (int i = 0; i < sizeInventory; i++)
+            emptyPass = true;
+            inventory.visitSlots(this);
+        }
+
+        @Override
+        public boolean visit(int slot, @Nonnull ItemStack existing)
+        {
+            if (emptyPass ? existing.isEmpty() : canItemStacksStackRelaxed(existing, stack))
             {
-                if (inventory.getStackInSlot(i).isEmpty())
-                {
-                    stack = inventory.insertItem(i, stack, simulate);
-                    if (stack.isEmpty())
-                    {
-                        break;
-                    }
-                }
+                stack = inventory.insertItem(slot, stack, simulate);
             }
+            return !stack.isEmpty();
         }
-
-        return stack;
     }
 
     /** giveItemToPlayer without preferred slot */
@@ -211,22 +347,35 @@ public class ItemHandlerHelper
         }
         else
         {
-            int itemsFound = 0;
-            float proportion = 0.0F;
+            RedstoneCounter counter = new RedstoneCounter(inv);
+            inv.visitSlots(counter);
 
-            for (int j = 0; j < inv.getSlots(); ++j)
-            {
-                ItemStack itemstack = inv.getStackInSlot(j);
+            int itemsFound = counter.itemsFound;
+            float proportion = counter.proportion / (float)inv.getSlots();
+            return MathHelper.floor(proportion * 14.0F) + (itemsFound > 0 ? 1 : 0);
+        }
+    }
 
-                if (!itemstack.isEmpty())
-                {
-                    proportion += (float)itemstack.getCount() / (float)Math.min(inv.getSlotLimit(j), itemstack.getMaxStackSize());
-                    ++itemsFound;
-                }
-            }
+    private static final class RedstoneCounter implements ISlotVisitor
+    {
+        private final IItemHandler inv;
+        private int itemsFound = 0;
+        private float proportion = 0.0F;
 
-            proportion = proportion / (float)inv.getSlots();
-            return MathHelper.floor(proportion * 14.0F) + (itemsFound > 0 ? 1 : 0);
+        private RedstoneCounter(IItemHandler inv)
+        {
+            this.inv = inv;
+        }
+
+        @Override
+        public boolean visit(int slot, @Nonnull ItemStack itemstack)
+        {
+            if (!itemstack.isEmpty())
+            {
+                proportion += (float)itemstack.getCount() / (float)Math.min(inv.getSlotLimit(slot), itemstack.getMaxStackSize());
+                ++itemsFound;
+            }
+            return true;
         }
     }
 }
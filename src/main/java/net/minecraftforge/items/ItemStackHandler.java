@@ -27,10 +27,15 @@ import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.common.util.INBTSerializable;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.BitSet;
+import java.util.function.Predicate;
 
 public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, INBTSerializable<NBTTagCompound>
 {
     protected NonNullList<ItemStack> stacks;
+    private final BitSet dirtySlots = new BitSet();
+    private long contentVersion;
 
     public ItemStackHandler()
     {
@@ -50,6 +55,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
     public void setSize(int size)
     {
         stacks = NonNullList.withSize(size, ItemStack.EMPTY);
+        markAllSlotsChanged();
     }
 
     @Override
@@ -59,7 +65,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
         if (ItemStack.areItemStacksEqual(this.stacks.get(slot), stack))
             return;
         this.stacks.set(slot, stack);
-        onContentsChanged(slot);
+        markSlotChanged(slot);
     }
 
     @Override
@@ -112,7 +118,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
             {
                 existing.grow(reachedLimit ? limit : stack.getCount());
             }
-            onContentsChanged(slot);
+            markSlotChanged(slot);
         }
 
         return reachedLimit ? ItemHandlerHelper.copyStackWithSize(stack, stack.getCount()- limit) : ItemStack.EMPTY;
@@ -139,7 +145,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
             if (!simulate)
             {
                 this.stacks.set(slot, ItemStack.EMPTY);
-                onContentsChanged(slot);
+                markSlotChanged(slot);
             }
             return existing;
         }
@@ -148,7 +154,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
             if (!simulate)
             {
                 this.stacks.set(slot, ItemHandlerHelper.copyStackWithSize(existing, existing.getCount() - toExtract));
-                onContentsChanged(slot);
+                markSlotChanged(slot);
             }
 
             return ItemHandlerHelper.copyStackWithSize(existing, toExtract);
@@ -161,6 +167,68 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
         return 64;
     }
 
+    @Override
+    public boolean visitSlots(ISlotVisitor visitor)
+    {
+        if (!ItemHandlerHelper.canVisitSlotsDirectly(this, ItemStackHandler.class))
+            return ItemHandlerHelper.visitSlotsByIndex(this, visitor);
+
+        for (int i = 0; i < stacks.size(); i++)
+        {
+            if (!visitor.visit(i, stacks.get(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int transferTo(IItemHandler dest, int maxAmount, @Nullable Predicate<ItemStack> filter, boolean simulate)
+    {
+        if (dest == null || maxAmount <= 0)
+            return 0;
+
+        int remaining = maxAmount;
+        for (int i = 0; i < stacks.size() && remaining > 0; i++)
+        {
+            ItemStack existing = stacks.get(i);
+            if (existing.isEmpty() || (filter != null && !filter.test(existing)))
+                continue;
+
+            // extractItem may be overridden to restrict extraction, so it still decides what can leave the slot
+            remaining -= ItemHandlerHelper.transferSlot(this, i, dest, remaining, null, simulate);
+        }
+
+        return maxAmount - remaining;
+    }
+
+    @Override
+    public long getContentVersion()
+    {
+        return contentVersion;
+    }
+
+    @Override
+    public boolean collectDirtySlots(BitSet dirtySlots)
+    {
+        dirtySlots.or(this.dirtySlots);
+        return true;
+    }
+
+    @Override
+    public void clearDirtySlots()
+    {
+        dirtySlots.clear();
+    }
+
+    @Override
+    public void clearDirtySlots(int fromSlot, int toSlot)
+    {
+        if (fromSlot < toSlot)
+            dirtySlots.clear(Math.max(fromSlot, 0), toSlot);
+    }
+
     protected int getStackLimit(int slot, @Nonnull ItemStack stack)
     {
         return Math.min(getSlotLimit(slot), stack.getMaxStackSize());
@@ -201,6 +269,7 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
                 stacks.set(slot, new ItemStack(itemTags));
             }
         }
+        markAllSlotsChanged();
         onLoad();
     }
 
@@ -210,13 +279,36 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
             throw new RuntimeException("Slot " + slot + " not in valid range - [0," + stacks.size() + ")");
     }
 
+    /**
+     * Bumps the content version, marks the slot dirty and calls {@link #onContentsChanged(int)}, also when an
+     * override of it doesn't call super. Subclasses that modify {@link #stacks} directly should call this afterwards.
+     */
+    protected void markSlotChanged(int slot)
+    {
+        contentVersion++;
+        dirtySlots.set(slot);
+        onContentsChanged(slot);
+    }
+
+    private void markAllSlotsChanged()
+    {
+        contentVersion++;
+        dirtySlots.set(0, stacks.size());
+    }
+
     protected void onLoad()
     {
 
     }
 
+    /**
+     * Called whenever a slot changed. Subclasses that modify {@link #stacks} themselves and then call this should
+     * call super in their override, this bumps the content version and marks the slot dirty.
+     */
     protected void onContentsChanged(int slot)
     {
-
+        contentVersion++;
+        if (slot >= 0 && slot < stacks.size())
+            dirtySlots.set(slot);
     }
 }
@@ -31,6 +31,7 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
+import net.minecraftforge.items.wrapper.InvWrapper;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -52,32 +53,7 @@ public class VanillaInventoryCodeHooks
 
         IItemHandler handler = itemHandlerResult.getKey();
 
-        for (int i = 0; i < handler.getSlots(); i++)
-        {
-            ItemStack extractItem = handler.extractItem(i, 1, true);
-            if (!extractItem.isEmpty())
-            {
-                for (int j = 0; j < dest.getSizeInventory(); j++)
-                {
-                    ItemStack destStack = dest.getStackInSlot(j);
-                    if (dest.isItemValidForSlot(j, extractItem) && (destStack.isEmpty() || destStack.getCount() < destStack.getMaxStackSize() && destStack.getCount() < dest.getInventoryStackLimit() && ItemHandlerHelper.canItemStacksStack(extractItem, destStack)))
-                    {
-                        extractItem = handler.extractItem(i, 1, false);
-                        if (destStack.isEmpty())
-                            dest.setInventorySlotContents(j, extractItem);
-                        else
-                        {
-                            destStack.grow(1);
-                            dest.setInventorySlotContents(j, destStack);
-                        }
-                        dest.markDirty();
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
+        return handler.transferTo(new InvWrapper(dest), 1, null, false) > 0;
     }
 
     /**
@@ -137,18 +113,18 @@ public class VanillaInventoryCodeHooks
             {
                 for (int i = 0; i < hopper.getSizeInventory(); ++i)
                 {
-                    if (!hopper.getStackInSlot(i).isEmpty())
+                    ItemStack stackInSlot = hopper.getStackInSlot(i);
+                    if (!stackInSlot.isEmpty())
                     {
-                        ItemStack originalSlotContents = hopper.getStackInSlot(i).copy();
-                        ItemStack insertStack = hopper.decrStackSize(i, 1);
+                        // only take the item out of the hopper once the destination has accepted it
+                        ItemStack insertStack = ItemHandlerHelper.copyStackWithSize(stackInSlot, 1);
                         ItemStack remainder = putStackInInventoryAllSlots(hopper, destination, itemHandler, insertStack);
 
                         if (remainder.isEmpty())
                         {
+                            hopper.decrStackSize(i, 1);
                             return true;
                         }
-
-                        hopper.setInventorySlotContents(i, originalSlotContents);
                     }
                 }
 
@@ -229,28 +205,12 @@ public class VanillaInventoryCodeHooks
 
     private static boolean isFull(IItemHandler itemHandler)
     {
-        for (int slot = 0; slot < itemHandler.getSlots(); slot++)
-        {
-            ItemStack stackInSlot = itemHandler.getStackInSlot(slot);
-            if (stackInSlot.isEmpty() || stackInSlot.getCount() != stackInSlot.getMaxStackSize())
-            {
-                return false;
-            }
-        }
-        return true;
+        return itemHandler.visitSlots((slot, stackInSlot) -> !stackInSlot.isEmpty() && stackInSlot.getCount() == stackInSlot.getMaxStackSize());
     }
 
     private static boolean isEmpty(IItemHandler itemHandler)
     {
-        for (int slot = 0; slot < itemHandler.getSlots(); slot++)
-        {
-            ItemStack stackInSlot = itemHandler.getStackInSlot(slot);
-            if (stackInSlot.getCount() > 0)
-            {
-                return false;
-            }
-        }
-        return true;
+        return itemHandler.visitSlots((slot, stackInSlot) -> stackInSlot.getCount() <= 0);
     }
 
     @Nullable
@@ -21,16 +21,23 @@ package net.minecraftforge.items.wrapper;
 
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.items.IItemHandlerModifiable;
+import net.minecraftforge.items.ISlotVisitor;
+import net.minecraftforge.items.ItemHandlerHelper;
 
 import javax.annotation.Nonnull;
+import java.util.BitSet;
 
 // combines multiple IItemHandlerModifiable into one interface
 public class CombinedInvWrapper implements IItemHandlerModifiable
 {
 
+    // combinations with more slots than this use a binary search instead of a per-slot lookup table
+    private static final int MAX_LOOKUP_TABLE_SLOTS = 1 << 14;
+
     protected final IItemHandlerModifiable[] itemHandler; // the handlers
     protected final int[] baseIndex; // index-offsets of the different handlers
     protected final int slotCount; // number of total slots
+    private final int[] handlerForSlot; // handler index for every slot, null for huge combinations
 
     public CombinedInvWrapper(IItemHandlerModifiable... itemHandler)
     {
@@ -43,22 +50,46 @@ public class CombinedInvWrapper implements IItemHandlerModifiable
             baseIndex[i] = index;
         }
         this.slotCount = index;
+
+        if (slotCount <= MAX_LOOKUP_TABLE_SLOTS)
+        {
+            this.handlerForSlot = new int[slotCount];
+            int slot = 0;
+            for (int i = 0; i < baseIndex.length; i++)
+            {
+                for (; slot < baseIndex[i]; slot++)
+                {
+                    handlerForSlot[slot] = i;
+                }
+            }
+        }
+        else
+        {
+            this.handlerForSlot = null;
+        }
     }
 
     // returns the handler index for the slot
     protected int getIndexForSlot(int slot)
     {
-        if (slot < 0)
+        if (slot < 0 || slot >= slotCount)
             return -1;
 
-        for (int i = 0; i < baseIndex.length; i++)
+        if (handlerForSlot != null)
+            return handlerForSlot[slot];
+
+        // first handler whose end offset is past the slot, skipping handlers without slots
+        int low = 0;
+        int high = baseIndex.length - 1;
+        while (low < high)
         {
-            if (slot - baseIndex[i] < 0)
-            {
-                return i;
-            }
+            int mid = (low + high) >>> 1;
+            if (baseIndex[mid] <= slot)
+                low = mid + 1;
+            else
+                high = mid;
         }
-        return -1;
+        return low;
     }
 
     protected IItemHandlerModifiable getHandlerFromIndex(int index)
@@ -124,6 +155,87 @@ public class CombinedInvWrapper implements IItemHandlerModifiable
         return handler.extractItem(slot, amount, simulate);
     }
 
+    @Override
+    public boolean visitSlots(ISlotVisitor visitor)
+    {
+        if (!ItemHandlerHelper.canVisitSlotsDirectly(this, CombinedInvWrapper.class))
+            return ItemHandlerHelper.visitSlotsByIndex(this, visitor);
+
+        int offset = 0;
+        for (int i = 0; i < itemHandler.length; i++)
+        {
+            final int base = offset;
+            if (!itemHandler[i].visitSlots((slot, stack) -> visitor.visit(base + slot, stack)))
+            {
+                return false;
+            }
+            offset = baseIndex[i];
+        }
+        return true;
+    }
+
+    // the sum of the handlers' versions, which increases whenever any of them changes
+    @Override
+    public long getContentVersion()
+    {
+        long version = 0;
+        for (IItemHandlerModifiable handler : itemHandler)
+        {
+            long handlerVersion = handler.getContentVersion();
+            if (handlerVersion < 0)
+            {
+                return -1;
+            }
+            version += handlerVersion;
+        }
+        return version;
+    }
+
+    @Override
+    public boolean collectDirtySlots(BitSet dirtySlots)
+    {
+        BitSet handlerDirty = new BitSet();
+        int offset = 0;
+        for (int i = 0; i < itemHandler.length; i++)
+        {
+            handlerDirty.clear();
+            if (!itemHandler[i].collectDirtySlots(handlerDirty))
+            {
+                return false;
+            }
+            for (int slot = handlerDirty.nextSetBit(0); slot >= 0; slot = handlerDirty.nextSetBit(slot + 1))
+            {
+                dirtySlots.set(offset + slot);
+            }
+            offset = baseIndex[i];
+        }
+        return true;
+    }
+
+    @Override
+    public void clearDirtySlots()
+    {
+        for (IItemHandlerModifiable handler : itemHandler)
+        {
+            handler.clearDirtySlots();
+        }
+    }
+
+    @Override
+    public void clearDirtySlots(int fromSlot, int toSlot)
+    {
+        int start = 0;
+        for (int i = 0; i < itemHandler.length; i++)
+        {
+            int end = baseIndex[i];
+            if (fromSlot < end && toSlot > start)
+            {
+                itemHandler[i].clearDirtySlots(Math.max(fromSlot, start) - start, Math.min(toSlot, end) - start);
+            }
+            start = end;
+        }
+    }
+
     @Override
     public int getSlotLimit(int slot)
     {
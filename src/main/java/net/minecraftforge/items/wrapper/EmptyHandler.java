@@ -24,6 +24,7 @@ import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.IItemHandlerModifiable;
 
 import javax.annotation.Nonnull;
+import java.util.BitSet;
 
 public class EmptyHandler implements IItemHandlerModifiable
 {
@@ -67,4 +68,16 @@ public class EmptyHandler implements IItemHandlerModifiable
     {
         return 0;
     }
+
+    @Override
+    public long getContentVersion()
+    {
+        return 0;
+    }
+
+    @Override
+    public boolean collectDirtySlots(BitSet dirtySlots)
+    {
+        return true;
+    }
 }
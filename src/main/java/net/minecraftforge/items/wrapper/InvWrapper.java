@@ -21,10 +21,14 @@ package net.minecraftforge.items.wrapper;
 
 import net.minecraft.inventory.IInventory;
 import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.IItemHandlerModifiable;
+import net.minecraftforge.items.ISlotVisitor;
 import net.minecraftforge.items.ItemHandlerHelper;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.function.Predicate;
 
 public class InvWrapper implements IItemHandlerModifiable
 {
@@ -201,6 +205,45 @@ public class InvWrapper implements IItemHandlerModifiable
         return getInv().getInventoryStackLimit();
     }
 
+    @Override
+    public boolean visitSlots(ISlotVisitor visitor)
+    {
+        if (!ItemHandlerHelper.canVisitSlotsDirectly(this, InvWrapper.class))
+            return ItemHandlerHelper.visitSlotsByIndex(this, visitor);
+
+        IInventory inv = getInv();
+        int slots = inv.getSizeInventory();
+        for (int i = 0; i < slots; i++)
+        {
+            if (!visitor.visit(i, inv.getStackInSlot(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int transferTo(IItemHandler dest, int maxAmount, @Nullable Predicate<ItemStack> filter, boolean simulate)
+    {
+        if (dest == null || maxAmount <= 0)
+            return 0;
+
+        IInventory inv = getInv();
+        int slots = inv.getSizeInventory();
+        int remaining = maxAmount;
+        for (int i = 0; i < slots && remaining > 0; i++)
+        {
+            ItemStack stackInSlot = inv.getStackInSlot(i);
+            if (stackInSlot.isEmpty() || (filter != null && !filter.test(stackInSlot)))
+                continue;
+
+            remaining -= ItemHandlerHelper.transferSlot(this, i, dest, remaining, null, simulate);
+        }
+
+        return maxAmount - remaining;
+    }
+
     public IInventory getInv()
     {
         return inv;
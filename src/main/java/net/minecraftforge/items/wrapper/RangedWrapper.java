@@ -22,8 +22,11 @@ package net.minecraftforge.items.wrapper;
 import com.google.common.base.Preconditions;
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.items.IItemHandlerModifiable;
+import net.minecraftforge.items.ISlotVisitor;
+import net.minecraftforge.items.ItemHandlerHelper;
 
 import javax.annotation.Nonnull;
+import java.util.BitSet;
 
 /**
  * A wrapper that composes another IItemHandlerModifiable, exposing only a range of the composed slots.
@@ -105,9 +108,61 @@ public class RangedWrapper implements IItemHandlerModifiable {
         return 0;
     }
 
+    @Override
+    public boolean visitSlots(ISlotVisitor visitor)
+    {
+        if (!ItemHandlerHelper.canVisitSlotsDirectly(this, RangedWrapper.class))
+            return ItemHandlerHelper.visitSlotsByIndex(this, visitor);
+
+        for (int i = minSlot; i < maxSlot; i++)
+        {
+            if (!visitor.visit(i - minSlot, compose.getStackInSlot(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long getContentVersion()
+    {
+        return compose.getContentVersion();
+    }
+
+    @Override
+    public boolean collectDirtySlots(BitSet dirtySlots)
+    {
+        BitSet composeDirty = new BitSet();
+        if (!compose.collectDirtySlots(composeDirty))
+        {
+            return false;
+        }
+        dirtySlots.or(composeDirty.get(minSlot, maxSlot));
+        return true;
+    }
+
+    @Override
+    public void clearDirtySlots()
+    {
+        // Only the wrapped range, other wrappers over the same handler still have to see their changes
+        compose.clearDirtySlots(minSlot, maxSlot);
+    }
+
+    @Override
+    public void clearDirtySlots(int fromSlot, int toSlot)
+    {
+        int from = minSlot + Math.max(fromSlot, 0);
+        int to = Math.min(minSlot + toSlot, maxSlot);
+        if (from < to)
+        {
+            compose.clearDirtySlots(from, to);
+        }
+    }
+
     private boolean checkSlot(int localSlot)
     {
-        return localSlot + minSlot < maxSlot;
+        return localSlot >= 0 && localSlot + minSlot < maxSlot;
     }
 
 }
@@ -22,10 +22,14 @@ package net.minecraftforge.items.wrapper;
 import net.minecraft.inventory.ISidedInventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.EnumFacing;
+import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.IItemHandlerModifiable;
+import net.minecraftforge.items.ISlotVisitor;
 import net.minecraftforge.items.ItemHandlerHelper;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.function.Predicate;
 
 public class SidedInvWrapper implements IItemHandlerModifiable
 {
@@ -222,6 +226,45 @@ public class SidedInvWrapper implements IItemHandlerModifiable
         }
     }
 
+    @Override
+    public boolean visitSlots(ISlotVisitor visitor)
+    {
+        if (!ItemHandlerHelper.canVisitSlotsDirectly(this, SidedInvWrapper.class))
+            return ItemHandlerHelper.visitSlotsByIndex(this, visitor);
+
+        int[] slots = inv.getSlotsForFace(side);
+        for (int i = 0; i < slots.length; i++)
+        {
+            if (!visitor.visit(i, inv.getStackInSlot(slots[i])))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int transferTo(IItemHandler dest, int maxAmount, @Nullable Predicate<ItemStack> filter, boolean simulate)
+    {
+        if (dest == null || maxAmount <= 0)
+            return 0;
+
+        int[] slots = inv.getSlotsForFace(side);
+        int remaining = maxAmount;
+        for (int i = 0; i < slots.length && remaining > 0; i++)
+        {
+            int slot1 = slots[i];
+            ItemStack stackInSlot = inv.getStackInSlot(slot1);
+            if (stackInSlot.isEmpty() || (filter != null && !filter.test(stackInSlot)))
+                continue;
+
+            // extractItem may be overridden to restrict extraction, so it still decides what can leave the slot
+            remaining -= ItemHandlerHelper.transferSlot(this, i, dest, remaining, null, simulate);
+        }
+
+        return maxAmount - remaining;
+    }
+
     @Override
     public int getSlotLimit(int slot)
     {
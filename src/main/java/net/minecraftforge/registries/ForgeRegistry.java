@@ -18,6 +18,7 @@
  */
 package net.minecraftforge.registries;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
@@ -42,6 +43,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.event.RegistryEvent;
 import net.minecraftforge.event.RegistryEvent.MissingMappings;
@@ -56,7 +58,10 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
 {
     public static final boolean DEBUG = Boolean.parseBoolean(System.getProperty("forge.debugRegistryEntries", "false"));
     private final RegistryManager stage;
-    private final BiMap<Integer, V> ids = HashBiMap.create();
+    // Dense id -> value table and identity value -> id map, kept in sync by putId/removeId/clearIds.
+    // These sit on the block state and item id paths used by chunk and network serialization, so avoid boxing.
+    private Object[] byId = new Object[16];
+    private final Reference2IntOpenHashMap<V> toId = new Reference2IntOpenHashMap<V>();
     private final BiMap<ResourceLocation, V> names = HashBiMap.create();
     private final Class<V> superType;
     private final Map<ResourceLocation, ResourceLocation> aliases = Maps.newHashMap();
@@ -80,6 +85,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
 
     private V defaultValue = null;
     boolean isFrozen = false;
+    private int modCount = 0;
 
     ForgeRegistry(Class<V> superType, ResourceLocation defaultKey, int min, int max, @Nullable CreateCallback<V> create, @Nullable AddCallback<V> add, @Nullable ClearCallback<V> clear, RegistryManager stage, boolean allowOverrides, boolean isModifiable, @Nullable DummyFactory<V> dummyFactory, @Nullable MissingFactory<V> missing)
     {
@@ -97,6 +103,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         this.allowOverrides = allowOverrides;
         this.isModifiable = isModifiable;
         this.dummyFactory = dummyFactory;
+        this.toId.defaultReturnValue(-1);
         if (this.create != null)
             this.create.onCreate(this, stage);
     }
@@ -127,7 +134,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
                 V ret = next;
                 do {
                     cur = availabilityMap.nextSetBit(cur + 1);
-                    next = ids.get(cur);
+                    next = getRaw(cur);
                 } while (next == null && cur != -1); // nextSetBit returns -1 when none is found
                 return ret;
             }
@@ -219,10 +226,10 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
 
     public int getID(V value)
     {
-        Integer ret = this.ids.inverse().get(value);
-        if (ret == null && this.defaultValue != null)
-            ret = this.ids.inverse().get(this.defaultValue);
-        return ret == null ? -1 : ret.intValue();
+        int ret = this.toId.getInt(value);
+        if (ret == -1 && this.defaultValue != null)
+            ret = this.toId.getInt(this.defaultValue);
+        return ret;
     }
 
     public int getID(ResourceLocation name)
@@ -231,8 +238,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
     }
     private int getIDRaw(V value)
     {
-        Integer ret = this.ids.inverse().get(value);
-        return ret == null ? -1 : ret.intValue();
+        return this.toId.getInt(value);
     }
     private int getIDRaw(ResourceLocation name)
     {
@@ -241,10 +247,56 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
 
     public V getValue(int id)
     {
-        V ret = this.ids.get(id);
+        V ret = getRaw(id);
         return ret == null ? this.defaultValue : ret;
     }
 
+    private void putId(int id, V value)
+    {
+        if (id >= this.byId.length)
+            this.byId = Arrays.copyOf(this.byId, Math.max(id + 1, this.byId.length * 2));
+        @SuppressWarnings("unchecked")
+        V old = (V)this.byId[id];
+        if (old != null)
+            this.toId.removeInt(old);
+        this.byId[id] = value;
+        this.toId.put(value, id);
+        markChanged();
+    }
+
+    private int removeId(V value)
+    {
+        int id = this.toId.removeInt(value);
+        if (id != -1)
+        {
+            this.byId[id] = null;
+            markChanged();
+        }
+        return id;
+    }
+
+    private void clearIds()
+    {
+        Arrays.fill(this.byId, null);
+        this.toId.clear();
+        markChanged();
+    }
+
+    private void markChanged()
+    {
+        this.modCount++;
+        this.stage.markChanged();
+    }
+
+    /**
+     * Counter that changes whenever this registry gains or loses an id, alias, dummy or block.
+     * Used by {@link ObjectHolderRegistry} to skip re-injecting holders of untouched registries.
+     */
+    int getModCount()
+    {
+        return this.modCount;
+    }
+
     void validateKey()
     {
         if (this.defaultKey != null)
@@ -293,10 +345,10 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
             idToUse = this.getID(oldEntry);
         }
 
-        Integer foundId = this.ids.inverse().get(value); //Is this ever possible to trigger with otherThing being different?
-        if (foundId != null)
+        int foundId = this.toId.getInt(value); //Is this ever possible to trigger with otherThing being different?
+        if (foundId != -1)
         {
-            V otherThing = this.ids.get(foundId);
+            V otherThing = getRaw(foundId);
             throw new IllegalArgumentException(String.format("The object %s{%x} has been registered twice, using the names %s and %s. (Other object at this id is %s{%x})", value, System.identityHashCode(value), getKey(value), key, otherThing, System.identityHashCode(otherThing)));
         }
 
@@ -311,7 +363,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         }
 
         this.names.put(key, value);
-        this.ids.put(idToUse, value);
+        putId(idToUse, value);
         this.availabilityMap.set(idToUse);
         this.owners.put(new OverrideOwner(owner == null ? key.getResourceDomain() : owner, key), value);
 
@@ -353,9 +405,10 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
     }
 
     @Deprecated //Public for ByteByfUtils only!
+    @SuppressWarnings("unchecked")
     public V getRaw(int id)
     {
-        return this.ids.get(id);
+        return id >= 0 && id < this.byId.length ? (V)this.byId[id] : null;
     }
 
     void addAlias(ResourceLocation from, ResourceLocation to)
@@ -363,6 +416,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         if (this.isLocked())
             throw new IllegalStateException(String.format("Attempted to register the alias %s -> %s to late", from, to));
         this.aliases.put(from, to);
+        markChanged();
         if (DEBUG)
             FMLLog.log.trace("Registry {} alias: {} -> {}", this.superType.getSimpleName(), from, to);
     }
@@ -372,6 +426,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         if (this.isLocked())
             throw new IllegalStateException(String.format("Attempted to register the dummy %s to late", key));
         this.dummies.add(key);
+        markChanged();
         if (DEBUG)
             FMLLog.log.trace("Registry {} dummy: {}", this.superType.getSimpleName(), key);
     }
@@ -473,7 +528,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         this.aliases.clear();
         from.aliases.forEach(this::addAlias);
 
-        this.ids.clear();
+        clearIds();
         this.names.clear();
         this.availabilityMap.clear(0, this.availabilityMap.length());
         this.defaultValue = null;
@@ -543,7 +598,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         this.aliases.clear();
         this.dummies.clear();
 
-        this.ids.clear();
+        clearIds();
         this.names.clear();
         this.availabilityMap.clear(0, this.availabilityMap.length());
     }
@@ -560,8 +615,8 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         V value = this.names.remove(key);
         if (value != null)
         {
-            Integer id = this.ids.inverse().remove(value);
-            if (id == null)
+            int id = removeId(value);
+            if (id == -1)
                 throw new IllegalStateException("Removed a entry that did not have an associated id: " + key + " " + value.toString() + " This should never happen unless hackery!");
 
             if (DEBUG)
@@ -575,6 +630,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
     {
         this.blocked.add(id);
         this.availabilityMap.set(id);
+        markChanged();
     }
 
     @Override
@@ -590,6 +646,8 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
     public void freeze()
     {
         this.isFrozen = true;
+        if (this.byId.length > this.availabilityMap.length())
+            this.byId = Arrays.copyOf(this.byId, this.availabilityMap.length());
     }
 
     public void unfreeze()
@@ -717,8 +775,8 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
                 throw new IllegalStateException("ContainsKey for " + key + " was true, but removing by name returned no value.. This should never happen unless hackery!");
 
 
-            Integer oldid = this.ids.inverse().remove(value);
-            if (oldid == null)
+            int oldid = removeId(value);
+            if (oldid == -1)
                 throw new IllegalStateException("Removed a entry that did not have an associated id: " + key + " " + value.toString() + " This should never happen unless hackery!");
 
             if (oldid != id)
@@ -740,7 +798,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
     public Snapshot makeSnapshot()
     {
         Snapshot ret = new Snapshot();
-        this.ids.forEach((id, value) -> ret.ids.put(getKey(value), id));
+        this.toId.forEach((value, id) -> ret.ids.put(getKey(value), id));
         ret.aliases.putAll(this.aliases);
         ret.blocked.addAll(this.blocked);
         ret.dummied.addAll(this.dummies);
@@ -19,6 +19,9 @@
 
 package net.minecraftforge.registries;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -44,6 +47,8 @@ class ObjectHolderRef
     private ResourceLocation injectedObject;
     private boolean isValid;
     private ForgeRegistry<?> registry;
+    private MethodHandle getter;
+    private MethodHandle setter;
 
     @SuppressWarnings("unchecked")
     ObjectHolderRef(Field field, ResourceLocation injectedObject, boolean extractFromExistingValues)
@@ -86,7 +91,8 @@ class ObjectHolderRef
         }
         try
         {
-            FinalFieldHelper.makeWritable(field);
+            this.getter = FinalFieldHelper.getter(field);
+            this.setter = FinalFieldHelper.setter(field);
         }
         catch (ReflectiveOperationException e)
         {
@@ -124,6 +130,11 @@ class ObjectHolderRef
         return isValid;
     }
 
+    ForgeRegistry<?> getRegistry()
+    {
+        return registry;
+    }
+
     public void apply()
     {
         Object thing;
@@ -143,41 +154,57 @@ class ObjectHolderRef
         }
         try
         {
-            FinalFieldHelper.setField(field, null, thing);
+            if ((Object)getter.invokeExact() != thing)
+                setter.invokeExact(thing);
         }
-        catch (IllegalArgumentException | ReflectiveOperationException e)
+        catch (Error e)
         {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            // invokeExact declares Throwable, anything short of an Error only means this one field couldn't be set
             FMLLog.log.warn("Unable to set {} with value {} ({})", this.field, thing, this.injectedObject, e);
         }
     }
 
+    /**
+     * Builds {@code (Object)void} setters for static holder fields. Plain fields get a direct field setter,
+     * final ones get a cached field accessor bound into a handle so the modifier hack only runs once per field.
+     */
     private static class FinalFieldHelper
     {
+        private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class);
         private static Field modifiersField;
         private static Object reflectionFactory;
         private static Method newFieldAccessor;
-        private static Method fieldAccessorSet;
+        private static MethodHandle fieldAccessorSet;
+
+        static MethodHandle getter(Field f) throws ReflectiveOperationException
+        {
+            f.setAccessible(true);
+            return LOOKUP.unreflectGetter(f).asType(MethodType.methodType(Object.class));
+        }
 
-        static Field makeWritable(Field f) throws ReflectiveOperationException
+        static MethodHandle setter(Field f) throws ReflectiveOperationException
         {
             f.setAccessible(true);
+            if (!Modifier.isFinal(f.getModifiers()))
+                return LOOKUP.unreflectSetter(f).asType(SETTER_TYPE);
+
             if (modifiersField == null)
             {
                 Method getReflectionFactory = Class.forName("sun.reflect.ReflectionFactory").getDeclaredMethod("getReflectionFactory");
                 reflectionFactory = getReflectionFactory.invoke(null);
                 newFieldAccessor = Class.forName("sun.reflect.ReflectionFactory").getDeclaredMethod("newFieldAccessor", Field.class, boolean.class);
-                fieldAccessorSet = Class.forName("sun.reflect.FieldAccessor").getDeclaredMethod("set", Object.class, Object.class);
+                fieldAccessorSet = LOOKUP.unreflect(Class.forName("sun.reflect.FieldAccessor").getDeclaredMethod("set", Object.class, Object.class));
                 modifiersField = Field.class.getDeclaredField("modifiers");
                 modifiersField.setAccessible(true);
             }
             modifiersField.setInt(f, f.getModifiers() & ~Modifier.FINAL);
-            return f;
-        }
-
-        static void setField(Field field, @Nullable Object instance, Object thing) throws ReflectiveOperationException
-        {
-            Object fieldAccessor = newFieldAccessor.invoke(reflectionFactory, field, false);
-            fieldAccessorSet.invoke(fieldAccessor, instance, thing);
+            Object fieldAccessor = newFieldAccessor.invoke(reflectionFactory, f, false);
+            return MethodHandles.insertArguments(fieldAccessorSet.bindTo(fieldAccessor), 0, (Object)null).asType(SETTER_TYPE);
         }
     }
 }
@@ -44,7 +44,10 @@ import javax.annotation.Nullable;
 public enum ObjectHolderRegistry
 {
     INSTANCE;
-    private List<ObjectHolderRef> objectHolders = Lists.newArrayList();
+    // Holders grouped by the registry they inject from, so a registry whose contents did not change since the
+    // last apply can be skipped as a whole. Apply order across registries follows discovery order, as before.
+    private Map<ForgeRegistry<?>, HolderGroup> objectHolders = Maps.newLinkedHashMap();
+    private int holderCount = 0;
 
     public void findObjectHolders(ASMDataTable table)
     {
@@ -87,7 +90,7 @@ public enum ObjectHolderRegistry
         scanTarget(classModIds, classCache, "net.minecraft.init.Enchantments", null, "minecraft", true, true);
         scanTarget(classModIds, classCache, "net.minecraft.init.SoundEvents", null, "minecraft", true, true);
         scanTarget(classModIds, classCache, "net.minecraft.init.PotionTypes", null, "minecraft", true, true);
-        FMLLog.log.info("Found {} ObjectHolder annotations", objectHolders.size());
+        FMLLog.log.info("Found {} ObjectHolder annotations", holderCount);
     }
 
     private void scanTarget(Map<String, String> classModIds, Map<String, Class<?>> classCache, String className, @Nullable String annotationTarget, String value, boolean isClass, boolean extractFromValue)
@@ -158,18 +161,52 @@ public enum ObjectHolderRegistry
     {
         if (ref.isValid())
         {
-            objectHolders.add(ref);
+            objectHolders.computeIfAbsent(ref.getRegistry(), HolderGroup::new).refs.add(ref);
+            holderCount++;
         }
     }
 
     public void applyObjectHolders()
     {
         FMLLog.log.info("Applying holder lookups");
-        for (ObjectHolderRef ohr : objectHolders)
+        int applied = 0;
+        for (HolderGroup group : objectHolders.values())
         {
-            ohr.apply();
+            if (group.apply())
+            {
+                applied += group.refs.size();
+            }
+        }
+        FMLLog.log.info("Holder lookups applied ({} of {} refreshed)", applied, holderCount);
+    }
+
+    private static class HolderGroup
+    {
+        private final ForgeRegistry<?> registry;
+        private final List<ObjectHolderRef> refs = Lists.newArrayList();
+        private boolean applied = false;
+        private int appliedModCount;
+
+        HolderGroup(ForgeRegistry<?> registry)
+        {
+            this.registry = registry;
+        }
+
+        boolean apply()
+        {
+            int modCount = registry.getModCount();
+            if (applied && appliedModCount == modCount)
+            {
+                return false;
+            }
+            for (ObjectHolderRef ohr : refs)
+            {
+                ohr.apply();
+            }
+            applied = true;
+            appliedModCount = modCount;
+            return true;
         }
-        FMLLog.log.info("Holder lookups applied");
     }
 
 }
@@ -26,6 +26,7 @@ public class RegistryManager
     private BiMap<Class<? extends IForgeRegistryEntry<?>>, ResourceLocation> superTypes = HashBiMap.create();
     private Set<ResourceLocation> persisted = Sets.newHashSet();
     private final String name;
+    private int modCount = 0;
 
     public RegistryManager(String name)
     {
@@ -37,6 +38,20 @@ public class RegistryManager
         return this.name;
     }
 
+    /**
+     * Counter that changes whenever a registry in this stage gains or loses an id, alias, dummy or block.
+     * Lets callers that persist snapshots skip rebuilding them when nothing has changed.
+     */
+    public int getModCount()
+    {
+        return this.modCount;
+    }
+
+    void markChanged()
+    {
+        this.modCount++;
+    }
+
     @SuppressWarnings("unchecked")
     public <V extends IForgeRegistryEntry<V>> Class<V> getSuperType(ResourceLocation key)
     {
@@ -67,6 +82,7 @@ public class RegistryManager
             if (ot == null)
                 return null;
             this.registries.put(key, ot.copy(this));
+            markChanged();
             this.superTypes.put(ot.getRegistrySuperType(), key);
             if (other.persisted.contains(key))
                 this.persisted.add(key);
@@ -90,6 +106,7 @@ public class RegistryManager
         ForgeRegistry<V> reg = new ForgeRegistry<V>(type, defaultKey, min, max, create, add, clear, this, allowOverrides, isModifiable, dummyFactory, missing);
         registries.put(name, reg);
         superTypes.put(type, name);
+        markChanged();
         if (persisted)
             this.persisted.add(name);
         return getRegistry(name);
@@ -123,5 +140,6 @@ public class RegistryManager
         this.persisted.clear();
         this.registries.clear();
         this.superTypes.clear();
+        markChanged();
     }
 }
@@ -19,7 +19,14 @@
 
 package net.minecraftforge.server.command;
 
+import java.io.File;
+import java.io.IOException;
 import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 
 import net.minecraft.command.CommandBase;
 import net.minecraft.command.CommandException;
@@ -27,8 +34,14 @@ import net.minecraft.command.ICommandSender;
 import net.minecraft.command.WrongUsageException;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.text.TextComponentTranslation;
+import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.DimensionManager;
-import net.minecraftforge.server.ForgeTimeTracker;
+import net.minecraftforge.common.chunkio.DormantChunkCache;
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.server.pregen.ChunkPregenerator;
+import net.minecraftforge.server.timings.EventHandlerProfiler;
+import net.minecraftforge.server.timings.TickProfiler;
+import net.minecraftforge.server.timings.WorldGenProfiler;
 
 public class ForgeCommand extends CommandBase {
 
@@ -74,6 +87,22 @@ public class ForgeCommand extends CommandBase {
         {
             handleTracking(server, sender, args);
         }
+        else if ("gen".equals(args[0]))
+        {
+            handleGeneration(server, sender, args);
+        }
+        else if ("worldgen".equals(args[0]))
+        {
+            handleWorldGenProfiler(server, sender, args);
+        }
+        else if ("events".equals(args[0]))
+        {
+            handleEventProfiler(server, sender, args);
+        }
+        else if ("chunkcache".equals(args[0]))
+        {
+            displayChunkCache(sender);
+        }
         else
         {
             throw new WrongUsageException("commands.forge.usage");
@@ -82,28 +111,267 @@ public class ForgeCommand extends CommandBase {
 
     private void handleTracking(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
     {
-        if (args.length != 3)
+        if (args.length == 2 && "stop".equals(args[1]))
+        {
+            TickProfiler.stopTracking();
+            sender.sendMessage(new TextComponentTranslation("commands.forge.tracking.stopped"));
+        }
+        else if (args.length >= 3 && "report".equals(args[1]))
+        {
+            TickProfiler.Category category = TickProfiler.Category.byName(args[2]);
+            String group = args.length > 3 ? args[3] : "class";
+            if (category == null || args.length > 4)
+            {
+                throw new WrongUsageException("commands.forge.usage.tracking");
+            }
+            List<TickProfiler.Row> rows;
+            if ("class".equals(group))
+            {
+                rows = TickProfiler.getByKey(category);
+            }
+            else if ("location".equals(group))
+            {
+                rows = TickProfiler.getByLocation(category);
+            }
+            else if ("chunk".equals(group))
+            {
+                rows = TickProfiler.getByChunk(category);
+            }
+            else
+            {
+                throw new WrongUsageException("commands.forge.usage.tracking");
+            }
+            int ticks = TickProfiler.getTrackedTicks();
+            sender.sendMessage(new TextComponentTranslation("commands.forge.tracking.report", category.getName(), group, ticks));
+            for (TickProfiler.Row row : rows.subList(0, Math.min(10, rows.size())))
+            {
+                String where = row.getPos() == null ? "" : String.format(" @ %d: %d, %d, %d", row.getDimension(), row.getPos().getX(), row.getPos().getY(), row.getPos().getZ());
+                sender.sendMessage(new TextComponentTranslation("commands.forge.tracking.row", row.getName() + where, row.getMod(),
+                        timeFormatter.format(row.getNanos() * 1.0E-6D / ticks), timeFormatter.format(row.getNanos() * 1.0E-3D / row.getCalls()), row.getCalls()));
+            }
+            long dropped = TickProfiler.getDroppedLocations(category);
+            if (dropped > 0 && !"class".equals(group))
+            {
+                sender.sendMessage(new TextComponentTranslation("commands.forge.tracking.dropped", dropped));
+            }
+        }
+        else if (args.length == 2 && "export".equals(args[1]))
+        {
+            File file = new File(server.getFile("debug"), "track-" + new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date()) + ".csv");
+            try
+            {
+                TickProfiler.export(file);
+            }
+            catch (IOException e)
+            {
+                FMLLog.log.error("Could not write tick tracking results to {}", file, e);
+                throw new CommandException("commands.forge.tracking.exportfailed", file.getName());
+            }
+            sender.sendMessage(new TextComponentTranslation("commands.forge.tracking.exported", file.getPath()));
+        }
+        else if (args.length == 3)
+        {
+            int duration = parseInt(args[2], 1, 300);
+            List<TickProfiler.Category> categories;
+            if ("all".equals(args[1]))
+            {
+                categories = Arrays.asList(TickProfiler.Category.values());
+            }
+            else
+            {
+                TickProfiler.Category category = TickProfiler.Category.byName(args[1]);
+                if (category == null)
+                {
+                    throw new WrongUsageException("commands.forge.usage.tracking");
+                }
+                categories = Collections.singletonList(category);
+            }
+            TickProfiler.startTracking(categories, duration);
+            sender.sendMessage(new TextComponentTranslation("commands.forge.tracking.enabled", args[1], duration));
+        }
+        else
         {
             throw new WrongUsageException("commands.forge.usage.tracking");
         }
-        String type = args[1];
-        int duration = parseInt(args[2], 1, 60);
+    }
+
+    private void handleGeneration(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+    {
+        if (args.length >= 5 && "start".equals(args[1]))
+        {
+            int x = parseInt(args[2]);
+            int z = parseInt(args[3]);
+            int radius = parseInt(args[4], 0, 10000);
+            int dim = args.length > 5 ? parseInt(args[5]) : sender.getEntityWorld().provider.getDimension();
+            ChunkPregenerator.Order order = ChunkPregenerator.Order.REGION;
+            if (args.length > 6)
+            {
+                if ("spiral".equals(args[6]))
+                {
+                    order = ChunkPregenerator.Order.SPIRAL;
+                }
+                else if (!"region".equals(args[6]))
+                {
+                    throw new WrongUsageException("commands.forge.usage.gen");
+                }
+            }
+            if (!DimensionManager.isDimensionRegistered(dim))
+            {
+                throw new CommandException("commands.forge.gen.nodim", dim);
+            }
+            WorldServer world = server.getWorld(dim);
+            if (!ChunkPregenerator.start(world, x >> 4, z >> 4, radius, order))
+            {
+                throw new CommandException("commands.forge.gen.running", dim);
+            }
+            sender.sendMessage(new TextComponentTranslation("commands.forge.gen.started", (2L * radius + 1) * (2L * radius + 1), x >> 4, z >> 4, dim));
+        }
+        else if (args.length >= 2 && "stop".equals(args[1]))
+        {
+            int dim = args.length > 2 ? parseInt(args[2]) : sender.getEntityWorld().provider.getDimension();
+            ChunkPregenerator.Task task = ChunkPregenerator.stop(dim);
+            if (task == null)
+            {
+                throw new CommandException("commands.forge.gen.notrunning", dim);
+            }
+            sender.sendMessage(new TextComponentTranslation("commands.forge.gen.stopped", dim, task.getDone(), task.getTotal()));
+        }
+        else if (args.length == 2 && "status".equals(args[1]))
+        {
+            if (ChunkPregenerator.getTasks().isEmpty())
+            {
+                sender.sendMessage(new TextComponentTranslation("commands.forge.gen.none"));
+            }
+            for (ChunkPregenerator.Task task : ChunkPregenerator.getTasks())
+            {
+                sender.sendMessage(new TextComponentTranslation("commands.forge.gen.status", task.getDimension(), task.getDone(), task.getTotal(),
+                        timeFormatter.format(task.getDone() * 100.0D / task.getTotal()), timeFormatter.format(task.getRate())));
+            }
+        }
+        else
+        {
+            throw new WrongUsageException("commands.forge.usage.gen");
+        }
+    }
 
-        if ("te".equals(type))
+    private void handleWorldGenProfiler(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
+    {
+        if (args.length != 2)
+        {
+            throw new WrongUsageException("commands.forge.usage.worldgen");
+        }
+        if ("start".equals(args[1]))
+        {
+            WorldGenProfiler.start();
+            sender.sendMessage(new TextComponentTranslation("commands.forge.worldgen.started"));
+        }
+        else if ("stop".equals(args[1]))
         {
-            doTurnOnTileEntityTracking(server, sender, duration);
+            WorldGenProfiler.stop();
+            sender.sendMessage(new TextComponentTranslation("commands.forge.worldgen.stopped"));
+        }
+        else if ("status".equals(args[1]))
+        {
+            List<WorldGenProfiler.Timing> timings = WorldGenProfiler.getTimings();
+            for (WorldGenProfiler.Timing timing : timings.subList(0, Math.min(10, timings.size())))
+            {
+                sender.sendMessage(new TextComponentTranslation("commands.forge.worldgen.timing", timing.getDimension(), timing.getLabel(),
+                        timing.getOwner() == null ? "-" : timing.getOwner(), timeFormatter.format(timing.getNanos() * 1.0E-6D), timing.getCalls()));
+            }
+            int cascades = 0;
+            for (WorldGenProfiler.Cascade cascade : WorldGenProfiler.getCascades())
+            {
+                cascades += cascade.getCount();
+            }
+            sender.sendMessage(new TextComponentTranslation("commands.forge.worldgen.cascades", cascades));
+        }
+        else if ("dump".equals(args[1]))
+        {
+            File file = new File(server.getFile("debug"), "worldgen-" + new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss").format(new Date()) + ".txt");
+            try
+            {
+                WorldGenProfiler.dump(file);
+            }
+            catch (IOException e)
+            {
+                FMLLog.log.error("Could not write world generation profile to {}", file, e);
+                throw new CommandException("commands.forge.worldgen.dumpfailed", file.getName());
+            }
+            sender.sendMessage(new TextComponentTranslation("commands.forge.worldgen.dumped", file.getPath()));
         }
         else
         {
-            throw new WrongUsageException("commands.forge.usage.tracking");
+            throw new WrongUsageException("commands.forge.usage.worldgen");
         }
     }
 
-    private void doTurnOnTileEntityTracking(MinecraftServer server, ICommandSender sender, int duration)
+    private void handleEventProfiler(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException
     {
-        ForgeTimeTracker.tileEntityTrackingDuration = duration;
-        ForgeTimeTracker.tileEntityTracking = true;
-        sender.sendMessage(new TextComponentTranslation("commands.forge.tracking.te.enabled", duration));
+        if (args.length >= 2 && args.length <= 3 && "start".equals(args[1]))
+        {
+            boolean allocations = args.length == 3;
+            if (allocations && !"alloc".equals(args[2]))
+            {
+                throw new WrongUsageException("commands.forge.usage.events");
+            }
+            if (!EventHandlerProfiler.start(allocations))
+            {
+                sender.sendMessage(new TextComponentTranslation("commands.forge.events.noalloc"));
+            }
+            sender.sendMessage(new TextComponentTranslation("commands.forge.events.started"));
+        }
+        else if (args.length == 2 && "stop".equals(args[1]))
+        {
+            EventHandlerProfiler.stop();
+            sender.sendMessage(new TextComponentTranslation("commands.forge.events.stopped"));
+        }
+        else if (args.length >= 2 && args.length <= 3 && "report".equals(args[1]))
+        {
+            String group = args.length == 3 ? args[2] : "mod";
+            List<EventHandlerProfiler.Row> rows;
+            if ("mod".equals(group))
+            {
+                rows = EventHandlerProfiler.getByMod();
+            }
+            else if ("event".equals(group))
+            {
+                rows = EventHandlerProfiler.getByEvent();
+            }
+            else if ("listener".equals(group))
+            {
+                rows = EventHandlerProfiler.getByListener();
+            }
+            else
+            {
+                throw new WrongUsageException("commands.forge.usage.events");
+            }
+            double seconds = EventHandlerProfiler.getElapsedNanos() * 1.0E-9D;
+            sender.sendMessage(new TextComponentTranslation("commands.forge.events.report", group, timeFormatter.format(seconds)));
+            for (EventHandlerProfiler.Row row : rows.subList(0, Math.min(10, rows.size())))
+            {
+                String bytes = EventHandlerProfiler.isTrackingAllocations() ? String.valueOf(row.getBytes() / row.getCalls()) : "-";
+                sender.sendMessage(new TextComponentTranslation("commands.forge.events.row", row.getName(), row.getOwner(),
+                        timeFormatter.format(row.getNanos() * 1.0E-6D / seconds), timeFormatter.format(row.getNanos() * 1.0E-3D / row.getCalls()), row.getCalls(), bytes));
+            }
+        }
+        else
+        {
+            throw new WrongUsageException("commands.forge.usage.events");
+        }
+    }
+
+    private void displayChunkCache(ICommandSender sender)
+    {
+        if (!DormantChunkCache.isEnabled())
+        {
+            sender.sendMessage(new TextComponentTranslation("commands.forge.chunkcache.disabled"));
+            return;
+        }
+        long hits = DormantChunkCache.getHits();
+        long lookups = hits + DormantChunkCache.getMisses();
+        sender.sendMessage(new TextComponentTranslation("commands.forge.chunkcache.stats", DormantChunkCache.getEntryCount(),
+                DormantChunkCache.getBytes() / 1024, DormantChunkCache.getMaxBytes() / 1024, hits, DormantChunkCache.getMisses(),
+                lookups == 0 ? 0 : hits * 100 / lookups, DormantChunkCache.getStores(), DormantChunkCache.getEvictions()));
     }
 
     private void doTPSLog(MinecraftServer server, ICommandSender sender, String[] args)
@@ -28,23 +28,34 @@ import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Default implementation of PermissionAPI.
  * {@link #hasPermission(GameProfile, String, IContext)} is based on DefaultPermissionLevel
+ * <p>
+ * A node that isn't registered takes the level of the closest registered wildcard above it, so
+ * <code>"modid.claims.*"</code> covers <code>"modid.claims.break"</code>, then <code>"modid.*"</code>, then <code>"*"</code>.
+ * Whether a player is OP is looked up once per server tick and player.
  *
  * @see IPermissionHandler
  */
 public enum DefaultPermissionHandler implements IPermissionHandler
 {
     INSTANCE;
+    private static final int MAX_RESOLVED = 4096;
     private static final HashMap<String, DefaultPermissionLevel> PERMISSION_LEVEL_MAP = new HashMap<String, DefaultPermissionLevel>();
     private static final HashMap<String, String> DESCRIPTION_MAP = new HashMap<String, String>();
+    private static final ConcurrentHashMap<String, DefaultPermissionLevel> RESOLVED_LEVEL_MAP = new ConcurrentHashMap<String, DefaultPermissionLevel>();
+    private static final ConcurrentHashMap<UUID, Boolean> OP_CACHE = new ConcurrentHashMap<UUID, Boolean>();
+    private static volatile int opCacheTick = -1;
 
     @Override
     public void registerNode(String node, DefaultPermissionLevel level, String desc)
     {
         PERMISSION_LEVEL_MAP.put(node, level);
+        RESOLVED_LEVEL_MAP.clear();
 
         if(!desc.isEmpty())
         {
@@ -72,8 +83,73 @@ public enum DefaultPermissionHandler implements IPermissionHandler
             return true;
         }
 
+        return isOp(profile);
+    }
+
+    @Override
+    public boolean[] hasPermissions(GameProfile profile, String[] nodes, @Nullable IContext context)
+    {
+        boolean[] ret = new boolean[nodes.length];
+        Boolean op = null;
+        for (int i = 0; i < nodes.length; i++)
+        {
+            DefaultPermissionLevel level = getDefaultPermissionLevel(nodes[i]);
+            if (level == DefaultPermissionLevel.OP)
+            {
+                if (op == null)
+                {
+                    op = isOp(profile);
+                }
+                ret[i] = op;
+            }
+            else
+            {
+                ret[i] = level == DefaultPermissionLevel.ALL;
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public void invalidateCache(@Nullable GameProfile profile)
+    {
+        if (profile == null || profile.getId() == null)
+        {
+            OP_CACHE.clear();
+        }
+        else
+        {
+            OP_CACHE.remove(profile.getId());
+        }
+    }
+
+    private boolean isOp(GameProfile profile)
+    {
         MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
-        return server != null && server.getPlayerList().canSendCommands(profile);
+        if (server == null)
+        {
+            return false;
+        }
+
+        // The ops list drops expired entries on every lookup, so remember the answer until the tick is over
+        int tick = server.getTickCounter();
+        if (tick != opCacheTick)
+        {
+            OP_CACHE.clear();
+            opCacheTick = tick;
+        }
+        UUID id = profile.getId();
+        if (id == null)
+        {
+            return server.getPlayerList().canSendCommands(profile);
+        }
+        Boolean op = OP_CACHE.get(id);
+        if (op == null)
+        {
+            op = server.getPlayerList().canSendCommands(profile);
+            OP_CACHE.put(id, op);
+        }
+        return op;
     }
 
     @Override
@@ -84,11 +160,42 @@ public enum DefaultPermissionHandler implements IPermissionHandler
     }
 
     /**
-     * @return The default permission level of a node. If the permission isn't registred, it will return NONE
+     * @return The default permission level of a node. If neither the permission nor a wildcard above it is registred, it will return NONE
      */
     public DefaultPermissionLevel getDefaultPermissionLevel(String node)
     {
         DefaultPermissionLevel level = PERMISSION_LEVEL_MAP.get(node);
+        if (level != null)
+        {
+            return level;
+        }
+        level = RESOLVED_LEVEL_MAP.get(node);
+        if (level == null)
+        {
+            level = resolveWildcard(node);
+            if (RESOLVED_LEVEL_MAP.size() >= MAX_RESOLVED)
+            {
+                RESOLVED_LEVEL_MAP.clear();
+            }
+            RESOLVED_LEVEL_MAP.put(node, level);
+        }
+        return level;
+    }
+
+    private DefaultPermissionLevel resolveWildcard(String node)
+    {
+        String parent = node;
+        int dot;
+        while ((dot = parent.lastIndexOf('.')) >= 0)
+        {
+            parent = parent.substring(0, dot);
+            DefaultPermissionLevel level = PERMISSION_LEVEL_MAP.get(parent + ".*");
+            if (level != null)
+            {
+                return level;
+            }
+        }
+        DefaultPermissionLevel level = PERMISSION_LEVEL_MAP.get("*");
         return level == null ? DefaultPermissionLevel.NONE : level;
     }
 }
\ No newline at end of file
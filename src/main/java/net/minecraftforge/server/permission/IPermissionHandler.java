@@ -42,6 +42,26 @@ public interface IPermissionHandler
      */
     boolean hasPermission(GameProfile profile, String node, @Nullable IContext context);
 
+    /**
+     * Use {@link PermissionAPI#hasPermissions(GameProfile, String[], IContext)}
+     */
+    default boolean[] hasPermissions(GameProfile profile, String[] nodes, @Nullable IContext context)
+    {
+        boolean[] ret = new boolean[nodes.length];
+        for (int i = 0; i < nodes.length; i++)
+        {
+            ret[i] = hasPermission(profile, nodes[i], context);
+        }
+        return ret;
+    }
+
+    /**
+     * Use {@link PermissionAPI#invalidateCache(GameProfile)}
+     */
+    default void invalidateCache(@Nullable GameProfile profile)
+    {
+    }
+
     /**
      * @param node Permission node
      * @return Description of the node. "" in case this node doesn't have a decription
@@ -54,7 +54,8 @@ public class PermissionAPI
     /**
      * <b>Only use this after PreInit state!</b>
      *
-     * @param node  Permission node, best if it's lowercase and contains '.' (e.g. <code>"modid.subgroup.permission_id"</code>)
+     * @param node  Permission node, best if it's lowercase and contains '.' (e.g. <code>"modid.subgroup.permission_id"</code>).
+     *              A node ending in <code>".*"</code> sets the level of every unregistered node below it
      * @param level Default permission level for this node. If not isn't registered, it's level is going to be 'NONE'
      * @param desc  Optional description of the node
      */
@@ -84,6 +85,37 @@ public class PermissionAPI
         return permissionHandler.hasPermission(profile, node, context);
     }
 
+    /**
+     * Checks several nodes at once, which lets the handler look the player up only once.
+     *
+     * @param profile GameProfile of the player who is requesting permission. The player doesn't have to be online
+     * @param nodes   Permission nodes. See {@link #registerNode(String, DefaultPermissionLevel, String)}
+     * @param context Context for these permissions. Highly recommended to not be null. See {@link IContext}
+     * @return Whether the player has each node, in the same order as nodes.
+     */
+    public static boolean[] hasPermissions(GameProfile profile, String[] nodes, @Nullable IContext context)
+    {
+        Preconditions.checkNotNull(profile, "GameProfile can't be null!");
+        Preconditions.checkNotNull(nodes, "Permission nodes can't be null!");
+        for (String node : nodes)
+        {
+            Preconditions.checkNotNull(node, "Permission node can't be null!");
+            Preconditions.checkArgument(!node.isEmpty(), "Permission node can't be empty!");
+        }
+        return permissionHandler.hasPermissions(profile, nodes, context);
+    }
+
+    /**
+     * Tells the handler to forget what it has cached about a player, for example after changing the player's group or
+     * OP status outside of the handler.
+     *
+     * @param profile The player, or null for everyone
+     */
+    public static void invalidateCache(@Nullable GameProfile profile)
+    {
+        permissionHandler.invalidateCache(profile);
+    }
+
     /**
      * Shortcut method using EntityPlayer and creating PlayerContext
      *
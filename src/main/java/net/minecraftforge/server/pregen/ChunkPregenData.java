@@ -0,0 +1,95 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.pregen;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+import net.minecraft.world.storage.MapStorage;
+import net.minecraft.world.storage.WorldSavedData;
+
+/**
+ * Per-dimension progress of a {@link ChunkPregenerator} task, saved with the world so an interrupted task
+ * picks up where it left off when the dimension is next loaded.
+ */
+public class ChunkPregenData extends WorldSavedData
+{
+    public static final String ID = "forge_pregen";
+
+    boolean active;
+    int centerX;
+    int centerZ;
+    int radius;
+    ChunkPregenerator.Order order = ChunkPregenerator.Order.REGION;
+    long next;
+
+    public ChunkPregenData(String name)
+    {
+        super(name);
+    }
+
+    @Nullable
+    static ChunkPregenData get(World world)
+    {
+        return (ChunkPregenData) world.getPerWorldStorage().getOrLoadData(ChunkPregenData.class, ID);
+    }
+
+    static ChunkPregenData getOrCreate(World world)
+    {
+        MapStorage storage = world.getPerWorldStorage();
+        ChunkPregenData data = (ChunkPregenData) storage.getOrLoadData(ChunkPregenData.class, ID);
+        if (data == null)
+        {
+            data = new ChunkPregenData(ID);
+            storage.setData(ID, data);
+        }
+        return data;
+    }
+
+    long getTotal()
+    {
+        long side = 2L * radius + 1;
+        return side * side;
+    }
+
+    @Override
+    public void readFromNBT(NBTTagCompound nbt)
+    {
+        active = nbt.getBoolean("Active");
+        centerX = nbt.getInteger("CenterX");
+        centerZ = nbt.getInteger("CenterZ");
+        radius = nbt.getInteger("Radius");
+        order = nbt.getString("Order").equals(ChunkPregenerator.Order.SPIRAL.name()) ? ChunkPregenerator.Order.SPIRAL : ChunkPregenerator.Order.REGION;
+        next = nbt.getLong("Next");
+    }
+
+    @Override
+    public NBTTagCompound writeToNBT(NBTTagCompound nbt)
+    {
+        nbt.setBoolean("Active", active);
+        nbt.setInteger("CenterX", centerX);
+        nbt.setInteger("CenterZ", centerZ);
+        nbt.setInteger("Radius", radius);
+        nbt.setString("Order", order.name());
+        nbt.setLong("Next", next);
+        return nbt;
+    }
+}
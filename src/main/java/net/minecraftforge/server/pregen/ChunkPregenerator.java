@@ -0,0 +1,433 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.pregen;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongRBTreeSet;
+import it.unimi.dsi.fastutil.longs.LongSortedSet;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.gen.ChunkProviderServer;
+import net.minecraftforge.common.ForgeModContainer;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Generates every chunk in a square area of a dimension, spending at most {@link ForgeModContainer#pregenTickBudget}
+ * milliseconds of each server tick on it.
+ * <p>
+ * Chunks that already exist are read on the chunk IO threads and only need their population checked on the server
+ * thread, so several of those are kept in flight while missing chunks are generated. Generation and population
+ * ({@link net.minecraftforge.fml.common.registry.GameRegistry#generateWorld}) run through
+ * {@link ChunkProviderServer#provideChunk}, exactly as when a player walks there. Finished chunks are queued to unload
+ * once more than {@link ForgeModContainer#pregenMaxLoadedChunks} are held, which saves them on the file IO thread.
+ * Progress is stored in the dimension's {@link ChunkPregenData}.
+ */
+public class ChunkPregenerator
+{
+    public enum Order
+    {
+        /** Region file by region file, row by row inside each region. Keeps the working set small. */
+        REGION,
+        /**
+         * Outwards from the center, nearest chunks first. Each ring needs the previous one loaded to populate, so large
+         * radii want a higher {@link ForgeModContainer#pregenMaxLoadedChunks}, or ring edges get read back from disk.
+         */
+        SPIRAL
+    }
+
+    private static final int MAX_IN_FLIGHT = 64;
+    private static final long LOG_INTERVAL = 30_000_000_000L;
+
+    private static final Map<Integer, Task> tasks = Maps.newTreeMap();
+
+    /**
+     * Starts generating a square of chunks with the given radius around a chunk.
+     *
+     * @return false if the dimension already has a task running.
+     */
+    public static boolean start(WorldServer world, int centerX, int centerZ, int radius, Order order)
+    {
+        int dim = world.provider.getDimension();
+        if (tasks.containsKey(dim))
+        {
+            return false;
+        }
+        ChunkPregenData data = ChunkPregenData.getOrCreate(world);
+        data.active = true;
+        data.centerX = centerX;
+        data.centerZ = centerZ;
+        data.radius = radius;
+        data.order = order;
+        data.next = 0;
+        data.markDirty();
+        tasks.put(dim, new Task(world, data));
+        FMLLog.log.info("Generating {} chunks around chunk {}, {} in dimension {}", data.getTotal(), centerX, centerZ, dim);
+        return true;
+    }
+
+    /**
+     * Stops the task for a dimension. Its progress is discarded.
+     *
+     * @return the stopped task, or null if the dimension had none.
+     */
+    @Nullable
+    public static Task stop(int dim)
+    {
+        Task task = tasks.remove(dim);
+        if (task != null)
+        {
+            task.close();
+        }
+        return task;
+    }
+
+    public static Collection<Task> getTasks()
+    {
+        return Collections.unmodifiableCollection(tasks.values());
+    }
+
+    @SubscribeEvent
+    public static void onWorldLoad(WorldEvent.Load event)
+    {
+        World world = event.getWorld();
+        if (world.isRemote || !(world instanceof WorldServer))
+        {
+            return;
+        }
+        ChunkPregenData data = ChunkPregenData.get(world);
+        if (data != null && data.active)
+        {
+            Task task = new Task((WorldServer) world, data);
+            tasks.put(task.getDimension(), task);
+            FMLLog.log.info("Resuming chunk generation in dimension {} at {}/{} chunks", task.getDimension(), data.next, data.getTotal());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event)
+    {
+        World world = event.getWorld();
+        if (world.isRemote)
+        {
+            return;
+        }
+        Task task = tasks.get(world.provider.getDimension());
+        if (task != null && task.world == world)
+        {
+            // Progress stays in the saved data, the task resumes when the dimension loads again
+            tasks.remove(task.getDimension());
+            task.closed = true;
+            task.worldUnloaded = true;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if (event.phase != TickEvent.Phase.END || tasks.isEmpty())
+        {
+            return;
+        }
+        long deadline = System.nanoTime() + ForgeModContainer.pregenTickBudget * 1_000_000L;
+        // Generating chunks can load dimensions, whose tasks are then resumed into the map
+        for (Task task : Lists.newArrayList(tasks.values()))
+        {
+            if (tasks.get(task.getDimension()) == task && task.tick(deadline))
+            {
+                tasks.remove(task.getDimension());
+            }
+        }
+    }
+
+    public static class Task
+    {
+        private final WorldServer world;
+        private final ChunkPregenData data;
+        private final Positions positions;
+        private final LongArrayFIFOQueue held = new LongArrayFIFOQueue();
+        // Indices of the chunks still being read, the saved progress must not move past the first of them
+        private final LongSortedSet inFlight = new LongRBTreeSet();
+        private final long startTime = System.nanoTime();
+        private final long startIndex;
+        private long lastLog = startTime;
+        private long issued;
+        private boolean closed;
+        private boolean worldUnloaded;
+
+        private Task(WorldServer world, ChunkPregenData data)
+        {
+            this.world = world;
+            this.data = data;
+            int minX = data.centerX - data.radius;
+            int minZ = data.centerZ - data.radius;
+            int maxX = data.centerX + data.radius;
+            int maxZ = data.centerZ + data.radius;
+            this.positions = data.order == Order.SPIRAL ? new SpiralPositions(data.centerX, data.centerZ, data.getTotal()) : new RegionPositions(minX, minZ, maxX, maxZ);
+            for (long i = 0; i < data.next && positions.hasNext(); i++)
+            {
+                positions.next();
+            }
+            this.startIndex = data.next;
+            this.issued = data.next;
+        }
+
+        public int getDimension()
+        {
+            return world.provider.getDimension();
+        }
+
+        public long getDone()
+        {
+            return issued - inFlight.size();
+        }
+
+        public long getTotal()
+        {
+            return data.getTotal();
+        }
+
+        /**
+         * Chunks per second since this task was started or resumed.
+         */
+        public double getRate()
+        {
+            double seconds = (System.nanoTime() - startTime) / 1.0E9D;
+            return seconds > 0 ? (getDone() - startIndex) / seconds : 0;
+        }
+
+        /**
+         * @return true once every chunk has been handled.
+         */
+        private boolean tick(long deadline)
+        {
+            ChunkProviderServer provider = world.getChunkProvider();
+            while (inFlight.size() < MAX_IN_FLIGHT && positions.hasNext() && System.nanoTime() < deadline)
+            {
+                long pos = positions.next();
+                int x = (int) pos;
+                int z = (int) (pos >> 32);
+                long index = issued++;
+
+                // Not getLoadedChunk, that would cancel an unload someone else queued
+                if (provider.id2ChunkMap.containsKey(ChunkPos.asLong(x, z)))
+                {
+                    // Loaded for someone else, leave its lifetime to them
+                    continue;
+                }
+                if (provider.isChunkGeneratedAt(x, z))
+                {
+                    // Read on the chunk IO threads, population is checked when it arrives on this thread
+                    inFlight.add(index);
+                    provider.loadChunk(x, z, () ->
+                    {
+                        inFlight.remove(index);
+                        if (!closed)
+                        {
+                            held.enqueue(pos);
+                        }
+                        else if (!worldUnloaded)
+                        {
+                            // Stopped meanwhile, nothing will unload it later
+                            unload(world.getChunkProvider(), pos);
+                        }
+                    });
+                }
+                else
+                {
+                    provider.provideChunk(x, z);
+                    held.enqueue(pos);
+                }
+            }
+            data.next = inFlight.isEmpty() ? issued : inFlight.firstLong();
+            data.markDirty();
+
+            while (held.size() > ForgeModContainer.pregenMaxLoadedChunks)
+            {
+                unload(provider, held.dequeueLong());
+            }
+
+            long now = System.nanoTime();
+            if (now - lastLog >= LOG_INTERVAL)
+            {
+                lastLog = now;
+                FMLLog.log.info("Generated {}/{} chunks in dimension {} ({} chunks/s)", getDone(), getTotal(), getDimension(), String.format("%.1f", getRate()));
+            }
+
+            if (!positions.hasNext() && inFlight.isEmpty())
+            {
+                FMLLog.log.info("Finished generating {} chunks in dimension {}", getTotal(), getDimension());
+                close();
+                return true;
+            }
+            return false;
+        }
+
+        private void unload(ChunkProviderServer provider, long pos)
+        {
+            int x = (int) pos;
+            int z = (int) (pos >> 32);
+            Chunk chunk = provider.id2ChunkMap.get(ChunkPos.asLong(x, z));
+            if (chunk != null && !world.getPlayerChunkMap().contains(x, z))
+            {
+                provider.queueUnload(chunk);
+            }
+        }
+
+        private void close()
+        {
+            closed = true;
+            ChunkProviderServer provider = world.getChunkProvider();
+            while (!held.isEmpty())
+            {
+                unload(provider, held.dequeueLong());
+            }
+            data.active = false;
+            data.markDirty();
+        }
+    }
+
+    private interface Positions
+    {
+        boolean hasNext();
+
+        long next();
+    }
+
+    /**
+     * Walks the area one region file (32x32 chunks) at a time, row by row inside each region, so a chunk's
+     * population neighbours are generated shortly after it.
+     */
+    private static class RegionPositions implements Positions
+    {
+        private final int minX, minZ, maxX, maxZ;
+        private int regionX, regionZ;
+        private int x0, x1, z0, z1;
+        private int x, z;
+
+        RegionPositions(int minX, int minZ, int maxX, int maxZ)
+        {
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+            this.regionX = minX >> 5;
+            this.regionZ = minZ >> 5;
+            enterRegion();
+        }
+
+        private void enterRegion()
+        {
+            x0 = Math.max(minX, regionX << 5);
+            x1 = Math.min(maxX, (regionX << 5) + 31);
+            z0 = Math.max(minZ, regionZ << 5);
+            z1 = Math.min(maxZ, (regionZ << 5) + 31);
+            x = x0;
+            z = z0;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return regionZ <= maxZ >> 5;
+        }
+
+        @Override
+        public long next()
+        {
+            long pos = ChunkPos.asLong(x, z);
+            if (++x > x1)
+            {
+                x = x0;
+                if (++z > z1)
+                {
+                    if (++regionX > maxX >> 5)
+                    {
+                        regionX = minX >> 5;
+                        regionZ++;
+                    }
+                    if (hasNext())
+                    {
+                        enterRegion();
+                    }
+                }
+            }
+            return pos;
+        }
+    }
+
+    /**
+     * Square spiral outwards from the center. The first (2r+1)^2 steps cover exactly the square of radius r.
+     */
+    private static class SpiralPositions implements Positions
+    {
+        private long remaining;
+        private int x, z;
+        private int dx = 1, dz = 0;
+        private int legLength = 1, legStep, legs;
+
+        SpiralPositions(int centerX, int centerZ, long total)
+        {
+            this.x = centerX;
+            this.z = centerZ;
+            this.remaining = total;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return remaining > 0;
+        }
+
+        @Override
+        public long next()
+        {
+            long pos = ChunkPos.asLong(x, z);
+            remaining--;
+            x += dx;
+            z += dz;
+            if (++legStep == legLength)
+            {
+                legStep = 0;
+                int t = dx;
+                dx = -dz;
+                dz = t;
+                if (++legs % 2 == 0)
+                {
+                    legLength++;
+                }
+            }
+            return pos;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import net.minecraftforge.fml.common.ModContainer;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+
+/**
+ * Counts invocations, time and optionally allocated bytes of every {@link net.minecraftforge.fml.common.eventhandler.ASMEventHandler},
+ * while switched on with {@code /forge events}. Switched off, a listener only reads {@link #isEnabled()}.
+ * <p>
+ * Allocations come from the JVM's per thread allocation counter, which not every JVM has. They include anything the
+ * listener allocates for other threads' benefit, and nothing allocated by code it hands work to.
+ */
+public class EventHandlerProfiler
+{
+    private static volatile boolean enabled;
+    private static volatile boolean allocations;
+    private static long startTime;
+    private static long stopTime;
+    private static final Set<Listener> listeners = Collections.newSetFromMap(new MapMaker().weakKeys().<Listener, Boolean>makeMap());
+    private static final com.sun.management.ThreadMXBean threads = getThreadBean();
+
+    /**
+     * Clears the previous results and starts counting.
+     *
+     * @param trackAllocations Also count the bytes each listener allocates.
+     * @return false if allocations were requested but this JVM can not count them. Timing starts anyway.
+     */
+    public static synchronized boolean start(boolean trackAllocations)
+    {
+        enabled = false;
+        for (Listener listener : getListeners())
+        {
+            listener.reset();
+        }
+        allocations = trackAllocations && threads != null;
+        startTime = stopTime = System.nanoTime();
+        enabled = true;
+        return allocations == trackAllocations;
+    }
+
+    public static synchronized void stop()
+    {
+        if (enabled)
+        {
+            enabled = false;
+            stopTime = System.nanoTime();
+        }
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public static boolean isTrackingAllocations()
+    {
+        return allocations;
+    }
+
+    /**
+     * @return Nanoseconds covered by the last or current run.
+     */
+    public static synchronized long getElapsedNanos()
+    {
+        return (enabled ? System.nanoTime() : stopTime) - startTime;
+    }
+
+    /**
+     * Creates the counters of a new listener.
+     *
+     * @param owner The mod that registered the listener.
+     * @param eventType The event class the listener takes.
+     * @param name A readable name of the listener method.
+     */
+    public static Listener register(@Nullable ModContainer owner, Class<?> eventType, String name)
+    {
+        Listener listener = new Listener(owner == null ? "?" : owner.getModId(), eventType, name);
+        listeners.add(listener);
+        return listener;
+    }
+
+    private static List<Listener> getListeners()
+    {
+        synchronized (listeners)
+        {
+            return Lists.newArrayList(listeners);
+        }
+    }
+
+    /**
+     * @return Every listener that was called, slowest first.
+     */
+    public static List<Row> getByListener()
+    {
+        return group(listener -> listener.name);
+    }
+
+    /**
+     * @return The listeners of each mod summed up, slowest first.
+     */
+    public static List<Row> getByMod()
+    {
+        return group(listener -> listener.owner);
+    }
+
+    /**
+     * @return The listeners of each mod summed up per event type, slowest first.
+     */
+    public static List<Row> getByEvent()
+    {
+        return group(listener -> listener.eventType.getName());
+    }
+
+    private static List<Row> group(Function<Listener, String> name)
+    {
+        Map<String, Row> rows = Maps.newHashMap();
+        for (Listener listener : getListeners())
+        {
+            long calls = listener.calls.sum();
+            if (calls == 0)
+            {
+                continue;
+            }
+            Row row = rows.computeIfAbsent(listener.owner + '\0' + name.apply(listener), k -> new Row(name.apply(listener), listener.owner));
+            row.calls += calls;
+            row.nanos += listener.nanos.sum();
+            row.bytes += listener.bytes.sum();
+        }
+        List<Row> ret = Lists.newArrayList(rows.values());
+        ret.sort(Comparator.comparingLong(Row::getNanos).reversed());
+        return ret;
+    }
+
+    @Nullable
+    private static com.sun.management.ThreadMXBean getThreadBean()
+    {
+        try
+        {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean)bean).isThreadAllocatedMemorySupported())
+            {
+                ((com.sun.management.ThreadMXBean)bean).setThreadAllocatedMemoryEnabled(true);
+                return (com.sun.management.ThreadMXBean)bean;
+            }
+        }
+        catch (LinkageError | UnsupportedOperationException e)
+        {
+            // Not a HotSpot style JVM
+        }
+        return null;
+    }
+
+    /**
+     * The counters of one listener.
+     */
+    public static class Listener
+    {
+        private final String owner;
+        private final Class<?> eventType;
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        private Listener(String owner, Class<?> eventType, String name)
+        {
+            this.owner = owner;
+            this.eventType = eventType;
+            this.name = name;
+        }
+
+        /**
+         * @return The value to pass to {@link #end(long, long)}.
+         */
+        public long startAllocations()
+        {
+            return allocations ? threads.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+        }
+
+        public void end(long start, long allocationStart)
+        {
+            long time = System.nanoTime() - start;
+            if (!enabled)
+            {
+                return;
+            }
+            calls.increment();
+            nanos.add(time);
+            if (allocations && allocationStart > 0)
+            {
+                bytes.add(threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocationStart);
+            }
+        }
+
+        private void reset()
+        {
+            calls.reset();
+            nanos.reset();
+            bytes.reset();
+        }
+    }
+
+    public static class Row
+    {
+        private final String name;
+        private final String owner;
+        private long calls;
+        private long nanos;
+        private long bytes;
+
+        private Row(String name, String owner)
+        {
+            this.name = name;
+            this.owner = owner;
+        }
+
+        public String getName() { return name; }
+        public String getOwner() { return owner; }
+        public long getCalls() { return calls; }
+        public long getNanos() { return nanos; }
+        public long getBytes() { return bytes; }
+    }
+}
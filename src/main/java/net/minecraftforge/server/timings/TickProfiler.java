@@ -0,0 +1,543 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.entity.Entity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.NextTickListEntry;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.FMLLog;
+import net.minecraftforge.fml.common.eventhandler.Event;
+import net.minecraftforge.fml.common.registry.EntityEntry;
+import net.minecraftforge.fml.common.registry.EntityRegistry;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Measures how long the server thread spends ticking entities, tile entities and scheduled block updates, loading
+ * chunks and firing events, for a limited time started with {@code /forge track}.
+ * <p>
+ * Times are aggregated by class (or block, or event type) and by location, in parallel primitive arrays. Each category
+ * keeps at most {@value #MAX_KEYS} classes and {@value #MAX_LOCATIONS} locations; anything past that is counted under
+ * {@code (other)} or only by class. Tile entities, block updates and chunk loads are located by position, entities by
+ * entity ID at their last ticked position. Times are inclusive: a chunk loaded by a ticking tile entity counts for
+ * both. Chunks read asynchronously only count the part of the load done on the server thread once the read finished.
+ * <p>
+ * Hooks call {@link #start(Category)} and pass its result to the matching {@code end} method. Only the thread that
+ * started tracking is measured and records without locking, so the client world of an integrated server is left out.
+ */
+public class TickProfiler
+{
+    public enum Category
+    {
+        ENTITY("entity"),
+        TILE_ENTITY("te"),
+        BLOCK_TICK("block"),
+        CHUNK_LOAD("chunk"),
+        EVENT("event");
+
+        private final String name;
+
+        Category(String name)
+        {
+            this.name = name;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        @Nullable
+        public static Category byName(String name)
+        {
+            for (Category category : values())
+            {
+                if (category.name.equals(name))
+                {
+                    return category;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Returned by {@link #start(Category)} when the category is not being tracked. */
+    public static final long NOT_TRACKING = Long.MIN_VALUE;
+
+    private static final int MAX_KEYS = 4096;
+    private static final int MAX_LOCATIONS = 1 << 16;
+    private static final String OTHER = "(other)";
+
+    private static volatile int tracking;
+    private static Thread thread;
+    private static long startTime;
+    private static long endTime;
+    private static long stopTime;
+    private static int startTick;
+    private static int stopTick;
+    private static final Stats[] stats = new Stats[Category.values().length];
+
+    private static long blockTickStart = NOT_TRACKING;
+    private static World blockTickWorld;
+    private static NextTickListEntry blockTickEntry;
+
+    /**
+     * Clears the previous results and tracks the given categories for a number of seconds, on the calling thread.
+     */
+    public static synchronized void startTracking(Iterable<Category> categories, int seconds)
+    {
+        tracking = 0;
+        int mask = 0;
+        for (Category category : categories)
+        {
+            mask |= 1 << category.ordinal();
+        }
+        for (Category category : Category.values())
+        {
+            stats[category.ordinal()] = (mask & 1 << category.ordinal()) != 0 ? new Stats() : null;
+        }
+        blockTickStart = NOT_TRACKING;
+        blockTickWorld = null;
+        blockTickEntry = null;
+        thread = Thread.currentThread();
+        startTick = stopTick = getTickCounter();
+        startTime = stopTime = System.nanoTime();
+        endTime = startTime + seconds * 1_000_000_000L;
+        tracking = mask;
+    }
+
+    /**
+     * Stops tracking, keeping the results until the next start.
+     */
+    public static synchronized void stopTracking()
+    {
+        if (tracking != 0)
+        {
+            tracking = 0;
+            stopTime = System.nanoTime();
+            stopTick = getTickCounter();
+            blockTickStart = NOT_TRACKING;
+            blockTickWorld = null;
+            blockTickEntry = null;
+            FMLLog.log.info("Tick tracking finished after {} ticks, use /forge track report to see the results.", stopTick - startTick);
+        }
+    }
+
+    public static boolean isTracking()
+    {
+        return tracking != 0;
+    }
+
+    /**
+     * @return The time to pass to the matching {@code end} call, or {@link #NOT_TRACKING}.
+     */
+    public static long start(Category category)
+    {
+        if ((tracking & 1 << category.ordinal()) == 0 || Thread.currentThread() != thread)
+        {
+            return NOT_TRACKING;
+        }
+        long now = System.nanoTime();
+        if (now - endTime >= 0)
+        {
+            stopTracking();
+            return NOT_TRACKING;
+        }
+        return now;
+    }
+
+    public static void end(long start, Entity entity)
+    {
+        if (start == NOT_TRACKING || !isActive(Category.ENTITY)) return;
+        long time = System.nanoTime() - start;
+        BlockPos pos = entity.getPosition();
+        getStats(Category.ENTITY).record(entity.getClass(), entity.world.provider.getDimension(), entity.getEntityId(), pos.toLong(), time);
+    }
+
+    public static void end(long start, TileEntity tileEntity)
+    {
+        if (start == NOT_TRACKING || !isActive(Category.TILE_ENTITY)) return;
+        long time = System.nanoTime() - start;
+        long pos = tileEntity.getPos().toLong();
+        getStats(Category.TILE_ENTITY).record(tileEntity.getClass(), tileEntity.getWorld().provider.getDimension(), pos, pos, time);
+    }
+
+    public static void end(long start, Event event)
+    {
+        if (start == NOT_TRACKING || !isActive(Category.EVENT)) return;
+        getStats(Category.EVENT).record(event.getClass(), 0, 0, Long.MIN_VALUE, System.nanoTime() - start);
+    }
+
+    public static void endChunkLoad(long start, World world, int chunkX, int chunkZ)
+    {
+        if (start == NOT_TRACKING || !isActive(Category.CHUNK_LOAD)) return;
+        long time = System.nanoTime() - start;
+        int dim = world.provider.getDimension();
+        long pos = new BlockPos(chunkX << 4, 0, chunkZ << 4).toLong();
+        getStats(Category.CHUNK_LOAD).record(world.provider.getClass(), dim, pos, pos, time);
+    }
+
+    /**
+     * Called before each scheduled block update. There is no hook after the update itself, so one lasts until the
+     * next one starts or {@link #endBlockTicks()} is called once the updates of the tick are done.
+     */
+    public static void beginBlockTick(World world, NextTickListEntry entry)
+    {
+        long start = start(Category.BLOCK_TICK);
+        if (start == NOT_TRACKING) return;
+        recordBlockTick(start);
+        blockTickStart = System.nanoTime();
+        blockTickWorld = world;
+        blockTickEntry = entry;
+    }
+
+    public static void endBlockTicks()
+    {
+        if (blockTickStart == NOT_TRACKING || Thread.currentThread() != thread) return;
+        recordBlockTick(System.nanoTime());
+    }
+
+    private static void recordBlockTick(long now)
+    {
+        if (blockTickStart != NOT_TRACKING && isActive(Category.BLOCK_TICK))
+        {
+            long pos = blockTickEntry.position.toLong();
+            getStats(Category.BLOCK_TICK).record(blockTickEntry.getBlock(), blockTickWorld.provider.getDimension(), pos, pos, now - blockTickStart);
+        }
+        blockTickStart = NOT_TRACKING;
+        blockTickWorld = null;
+        blockTickEntry = null;
+    }
+
+    private static boolean isActive(Category category)
+    {
+        return (tracking & 1 << category.ordinal()) != 0;
+    }
+
+    private static Stats getStats(Category category)
+    {
+        return stats[category.ordinal()];
+    }
+
+    private static int getTickCounter()
+    {
+        return FMLCommonHandler.instance().getMinecraftServerInstance() == null ? 0 : FMLCommonHandler.instance().getMinecraftServerInstance().getTickCounter();
+    }
+
+    /**
+     * @return The number of server ticks the last or current run covers.
+     */
+    public static synchronized int getTrackedTicks()
+    {
+        return Math.max(1, (tracking != 0 ? getTickCounter() : stopTick) - startTick);
+    }
+
+    /**
+     * @return The results of a category by class, block or event type, slowest first. Empty if it was not tracked.
+     */
+    public static synchronized List<Row> getByKey(Category category)
+    {
+        List<Row> rows = Lists.newArrayList();
+        Stats s = getStats(category);
+        if (s != null)
+        {
+            for (int i = 0; i < s.keyCount; i++)
+            {
+                rows.add(new Row(category, s.keys[i], 0, null, s.keyCalls[i], s.keyNanos[i], s.keyMax[i]));
+            }
+        }
+        rows.sort(Row.SLOWEST_FIRST);
+        return rows;
+    }
+
+    /**
+     * @return The results of a category by position (or entity), slowest first. Empty for events.
+     */
+    public static synchronized List<Row> getByLocation(Category category)
+    {
+        List<Row> rows = Lists.newArrayList();
+        Stats s = getStats(category);
+        if (s != null)
+        {
+            for (int i = 0; i < s.locCount; i++)
+            {
+                if (s.locPos[i] != Long.MIN_VALUE)
+                {
+                    rows.add(new Row(category, s.keys[s.locKey[i]], s.locDim[i], BlockPos.fromLong(s.locPos[i]), s.locCalls[i], s.locNanos[i], s.locMax[i]));
+                }
+            }
+        }
+        rows.sort(Row.SLOWEST_FIRST);
+        return rows;
+    }
+
+    /**
+     * @return The results of a category summed up by chunk, slowest first. The key of each row is the slowest class
+     * in the chunk. Empty for events.
+     */
+    public static synchronized List<Row> getByChunk(Category category)
+    {
+        Int2ObjectOpenHashMap<Long2ObjectOpenHashMap<Row>> chunks = new Int2ObjectOpenHashMap<>();
+        List<Row> rows = Lists.newArrayList();
+        for (Row loc : getByLocation(category))
+        {
+            long chunk = ChunkPos.asLong(loc.pos.getX() >> 4, loc.pos.getZ() >> 4);
+            Long2ObjectOpenHashMap<Row> dimChunks = chunks.computeIfAbsent(loc.dim, k -> new Long2ObjectOpenHashMap<>());
+            Row row = dimChunks.get(chunk);
+            if (row == null)
+            {
+                // Locations come slowest first, so the first one seen in a chunk names it
+                row = new Row(category, loc.key, loc.dim, new BlockPos(loc.pos.getX() >> 4 << 4, 0, loc.pos.getZ() >> 4 << 4), 0, 0, 0);
+                dimChunks.put(chunk, row);
+                rows.add(row);
+            }
+            row.calls += loc.calls;
+            row.nanos += loc.nanos;
+            row.max = Math.max(row.max, loc.max);
+        }
+        rows.sort(Row.SLOWEST_FIRST);
+        return rows;
+    }
+
+    /**
+     * @return The number of locations of a category that were only counted by class, because the location table was
+     * full.
+     */
+    public static synchronized long getDroppedLocations(Category category)
+    {
+        Stats s = getStats(category);
+        return s == null ? 0 : s.droppedLocations;
+    }
+
+    /**
+     * Writes every class and location of the last or current run as comma separated values.
+     */
+    public static void export(File file) throws IOException
+    {
+        List<String> lines = Lists.newArrayList();
+        lines.add("# ticks=" + getTrackedTicks());
+        lines.add("group,category,key,mod,dim,x,y,z,calls,total_ns,max_ns");
+        for (Category category : Category.values())
+        {
+            for (Row row : getByKey(category))
+            {
+                lines.add(row.toCsv("class"));
+            }
+            for (Row row : getByLocation(category))
+            {
+                lines.add(row.toCsv("location"));
+            }
+        }
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs())
+        {
+            throw new IOException("Could not create directory " + dir);
+        }
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    public static class Row
+    {
+        private static final Comparator<Row> SLOWEST_FIRST = Comparator.comparingLong(Row::getNanos).reversed();
+
+        private final Category category;
+        private final Object key;
+        private final int dim;
+        private final BlockPos pos;
+        private long calls;
+        private long nanos;
+        private long max;
+
+        private Row(Category category, Object key, int dim, @Nullable BlockPos pos, long calls, long nanos, long max)
+        {
+            this.category = category;
+            this.key = key;
+            this.dim = dim;
+            this.pos = pos;
+            this.calls = calls;
+            this.nanos = nanos;
+            this.max = max;
+        }
+
+        public Category getCategory() { return category; }
+        public int getDimension() { return dim; }
+        /** The position, or null when the row is for a class. */
+        @Nullable
+        public BlockPos getPos() { return pos; }
+        public long getCalls() { return calls; }
+        public long getNanos() { return nanos; }
+        public long getMaxNanos() { return max; }
+
+        public String getName()
+        {
+            if (key instanceof Class)
+            {
+                return ((Class<?>)key).getName();
+            }
+            else if (key instanceof Block)
+            {
+                return String.valueOf(((Block)key).getRegistryName());
+            }
+            return String.valueOf(key);
+        }
+
+        @SuppressWarnings("unchecked")
+        public String getMod()
+        {
+            ResourceLocation name = null;
+            if (key instanceof Class && Entity.class.isAssignableFrom((Class<?>)key))
+            {
+                EntityEntry entry = EntityRegistry.getEntry((Class<? extends Entity>)key);
+                name = entry == null ? null : entry.getRegistryName();
+            }
+            else if (key instanceof Class && TileEntity.class.isAssignableFrom((Class<?>)key))
+            {
+                name = TileEntity.getKey((Class<? extends TileEntity>)key);
+            }
+            else if (key instanceof Block)
+            {
+                name = ((Block)key).getRegistryName();
+            }
+            return name == null ? "?" : name.getResourceDomain();
+        }
+
+        private String toCsv(String group)
+        {
+            return String.format(Locale.ROOT, "%s,%s,%s,%s,%d,%s,%s,%s,%d,%d,%d", group, category.getName(), getName(), getMod(), dim,
+                    pos == null ? "" : pos.getX(), pos == null ? "" : pos.getY(), pos == null ? "" : pos.getZ(), calls, nanos, max);
+        }
+    }
+
+    private static class Stats
+    {
+        private final Object2IntOpenHashMap<Object> keyIndex = new Object2IntOpenHashMap<>();
+        private Object[] keys = new Object[16];
+        private long[] keyCalls = new long[16];
+        private long[] keyNanos = new long[16];
+        private long[] keyMax = new long[16];
+        private int keyCount;
+
+        private final Int2ObjectOpenHashMap<Long2IntOpenHashMap> locIndex = new Int2ObjectOpenHashMap<>();
+        private int[] locDim = new int[64];
+        private long[] locPos = new long[64];
+        private int[] locKey = new int[64];
+        private long[] locCalls = new long[64];
+        private long[] locNanos = new long[64];
+        private long[] locMax = new long[64];
+        private int locCount;
+        private long droppedLocations;
+
+        private Stats()
+        {
+            keyIndex.defaultReturnValue(-1);
+        }
+
+        private void record(Object key, int dim, long id, long pos, long nanos)
+        {
+            int k = keyIndex.getInt(key);
+            if (k == -1)
+            {
+                k = keyCount < MAX_KEYS ? addKey(key) : keyIndex.getInt(OTHER);
+                if (k == -1)
+                {
+                    k = addKey(OTHER);
+                }
+            }
+            keyCalls[k]++;
+            keyNanos[k] += nanos;
+            keyMax[k] = Math.max(keyMax[k], nanos);
+
+            if (pos == Long.MIN_VALUE)
+            {
+                return;
+            }
+            Long2IntOpenHashMap dimIndex = locIndex.get(dim);
+            if (dimIndex == null)
+            {
+                dimIndex = new Long2IntOpenHashMap();
+                dimIndex.defaultReturnValue(-1);
+                locIndex.put(dim, dimIndex);
+            }
+            int l = dimIndex.get(id);
+            if (l == -1)
+            {
+                if (locCount == MAX_LOCATIONS)
+                {
+                    droppedLocations++;
+                    return;
+                }
+                if (locCount == locDim.length)
+                {
+                    int size = Math.min(locCount * 2, MAX_LOCATIONS);
+                    locDim = Arrays.copyOf(locDim, size);
+                    locPos = Arrays.copyOf(locPos, size);
+                    locKey = Arrays.copyOf(locKey, size);
+                    locCalls = Arrays.copyOf(locCalls, size);
+                    locNanos = Arrays.copyOf(locNanos, size);
+                    locMax = Arrays.copyOf(locMax, size);
+                }
+                l = locCount++;
+                dimIndex.put(id, l);
+                locDim[l] = dim;
+            }
+            locPos[l] = pos;
+            locKey[l] = k;
+            locCalls[l]++;
+            locNanos[l] += nanos;
+            locMax[l] = Math.max(locMax[l], nanos);
+        }
+
+        private int addKey(Object key)
+        {
+            if (keyCount == keys.length)
+            {
+                int size = keyCount * 2;
+                keys = Arrays.copyOf(keys, size);
+                keyCalls = Arrays.copyOf(keyCalls, size);
+                keyNanos = Arrays.copyOf(keyNanos, size);
+                keyMax = Arrays.copyOf(keyMax, size);
+            }
+            keyIndex.put(key, keyCount);
+            keys[keyCount] = key;
+            return keyCount++;
+        }
+    }
+}
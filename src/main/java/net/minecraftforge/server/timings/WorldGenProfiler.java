@@ -0,0 +1,397 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.world.World;
+import net.minecraft.world.gen.IChunkGenerator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Measures where chunk population time goes, and which population step caused other chunks to be loaded or generated
+ * (cascading world generation).
+ * <p>
+ * Population of a chunk is split into steps: the chunk generator's own populate call, every
+ * {@link net.minecraftforge.event.terraingen.TerrainGen} populate, decorate and ore event, and every
+ * {@link net.minecraftforge.fml.common.IWorldGenerator}. The terrain gen events fire before the feature is generated,
+ * so a step lasts until the next step starts or the chunk finishes populating. Population of a neighbouring chunk
+ * started from inside a step pauses that step, so step times never include each other.
+ * <p>
+ * Disabled by default; every hook is a single field read until {@link #start()} is called.
+ */
+public class WorldGenProfiler
+{
+    private static final int MAX_DEPTH = 64;
+    private static final int MAX_CHAINS = 256;
+
+    private static volatile boolean enabled;
+    private static volatile int epoch;
+    private static long startTime;
+    private static long stopTime;
+
+    private static final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final Object lock = new Object();
+    private static final Map<Integer, Map<String, Timing>> timings = Maps.newTreeMap();
+    private static final Map<Integer, Map<String, Cascade>> cascades = Maps.newTreeMap();
+    private static final Map<Integer, long[]> populated = Maps.newTreeMap();
+    private static final Deque<String> chains = new ArrayDeque<>();
+
+    /**
+     * Clears previous results and starts profiling.
+     */
+    public static void start()
+    {
+        synchronized (lock)
+        {
+            timings.clear();
+            cascades.clear();
+            populated.clear();
+            chains.clear();
+            startTime = System.nanoTime();
+            epoch++;
+            enabled = true;
+        }
+    }
+
+    /**
+     * Stops profiling, keeping the results until the next {@link #start()}.
+     */
+    public static void stop()
+    {
+        synchronized (lock)
+        {
+            if (enabled)
+            {
+                stopTime = System.nanoTime();
+                enabled = false;
+            }
+        }
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Called when a chunk starts populating.
+     */
+    public static void beginPopulation(World world, int chunkX, int chunkZ, IChunkGenerator generator)
+    {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        Deque<Frame> stack = frames.get();
+        Frame parent = stack.peek();
+        if (parent != null && (parent.epoch != epoch || stack.size() >= MAX_DEPTH))
+        {
+            // Left behind by a population that threw, or by an earlier run
+            stack.clear();
+            parent = null;
+        }
+        if (parent != null)
+        {
+            parent.close(now);
+        }
+        int dim = world.provider.getDimension();
+        Frame frame = new Frame(dim, chunkX, chunkZ, "provider/" + generator.getClass().getName(), null);
+        synchronized (lock)
+        {
+            populated.computeIfAbsent(dim, k -> new long[1])[0]++;
+            frame.timing().calls++;
+        }
+        stack.push(frame);
+        frame.start = System.nanoTime();
+    }
+
+    /**
+     * Called when a chunk is done populating.
+     */
+    public static void endPopulation(World world, int chunkX, int chunkZ)
+    {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        Deque<Frame> stack = frames.get();
+        int dim = world.provider.getDimension();
+        Frame frame;
+        while ((frame = stack.poll()) != null)
+        {
+            if (frame.dim == dim && frame.x == chunkX && frame.z == chunkZ)
+            {
+                if (frame.epoch == epoch)
+                {
+                    frame.close(now);
+                }
+                break;
+            }
+        }
+        Frame parent = stack.peek();
+        if (parent != null)
+        {
+            parent.start = System.nanoTime();
+        }
+    }
+
+    /**
+     * Called when a population step begins. Ends the previous step of the chunk being populated.
+     *
+     * @param category The kind of step, for example {@code decorate} or {@code generator}.
+     * @param name The step within its category.
+     * @param owner The mod the step belongs to, if known.
+     */
+    public static void beginStep(World world, String category, String name, @Nullable String owner)
+    {
+        if (!enabled) return;
+        Frame frame = frames.get().peek();
+        if (frame == null || frame.epoch != epoch || frame.dim != world.provider.getDimension()) return;
+        long now = System.nanoTime();
+        frame.close(now);
+        frame.label = category + "/" + name;
+        frame.owner = owner;
+        synchronized (lock)
+        {
+            frame.timing().calls++;
+        }
+        frame.start = now;
+    }
+
+    /**
+     * Called when a chunk that is not loaded gets loaded from disk or generated. Records a cascade if this happens
+     * while another chunk is populating.
+     */
+    public static void onChunkLoad(World world, int chunkX, int chunkZ)
+    {
+        if (!enabled) return;
+        Deque<Frame> stack = frames.get();
+        Frame top = stack.peek();
+        if (top == null || top.epoch != epoch) return;
+
+        StringBuilder chain = new StringBuilder();
+        Iterator<Frame> itr = stack.descendingIterator();
+        while (itr.hasNext())
+        {
+            Frame frame = itr.next();
+            chain.append("dim ").append(frame.dim).append(" [").append(frame.x).append(", ").append(frame.z).append("] ").append(frame.label);
+            if (frame.owner != null)
+            {
+                chain.append(" (").append(frame.owner).append(')');
+            }
+            chain.append(" -> ");
+        }
+        chain.append("dim ").append(world.provider.getDimension()).append(" [").append(chunkX).append(", ").append(chunkZ).append(']');
+
+        synchronized (lock)
+        {
+            cascades.computeIfAbsent(top.dim, k -> Maps.newHashMap()).computeIfAbsent(top.label, k -> new Cascade(top.dim, k, top.owner)).count++;
+            if (chains.size() >= MAX_CHAINS)
+            {
+                chains.removeFirst();
+            }
+            chains.addLast(chain.toString());
+        }
+    }
+
+    /**
+     * @return Step timings of every dimension, slowest first.
+     */
+    public static List<Timing> getTimings()
+    {
+        synchronized (lock)
+        {
+            List<Timing> ret = Lists.newArrayList();
+            timings.values().forEach(m -> ret.addAll(m.values()));
+            ret.sort(Comparator.comparingLong(Timing::getNanos).reversed());
+            return ret;
+        }
+    }
+
+    /**
+     * @return Cascade counts by the step that caused them, most frequent first.
+     */
+    public static List<Cascade> getCascades()
+    {
+        synchronized (lock)
+        {
+            List<Cascade> ret = Lists.newArrayList();
+            cascades.values().forEach(m -> ret.addAll(m.values()));
+            ret.sort(Comparator.comparingInt(Cascade::getCount).reversed());
+            return ret;
+        }
+    }
+
+    /**
+     * @return The most recent cascades, oldest first, each as the chain of populating chunks and their current step
+     * followed by the chunk that was loaded.
+     */
+    public static List<String> getCascadeChains()
+    {
+        synchronized (lock)
+        {
+            return ImmutableList.copyOf(chains);
+        }
+    }
+
+    /**
+     * Writes everything recorded so far to a text file.
+     */
+    public static void dump(File file) throws IOException
+    {
+        List<String> lines = Lists.newArrayList();
+        synchronized (lock)
+        {
+            long end = enabled ? System.nanoTime() : stopTime;
+            lines.add("---- World Generation Profile ----");
+            lines.add(String.format("Profiled for %.1f s%s", (end - startTime) / 1.0E9D, enabled ? " (still running)" : ""));
+            lines.add("");
+            lines.add("-- Populated chunks --");
+            for (Map.Entry<Integer, long[]> e : populated.entrySet())
+            {
+                long nanos = 0;
+                for (Timing timing : timings.getOrDefault(e.getKey(), Maps.newHashMap()).values())
+                {
+                    nanos += timing.nanos;
+                }
+                lines.add(String.format("Dim %d: %d chunks, %.3f ms total, %.3f ms/chunk", e.getKey(), e.getValue()[0], nanos / 1.0E6D, nanos / 1.0E6D / e.getValue()[0]));
+            }
+        }
+        lines.add("");
+        lines.add("-- Steps --");
+        lines.add("Dim\tTotal ms\tCalls\tAvg us\tStep\tOwner");
+        for (Timing timing : getTimings())
+        {
+            lines.add(String.format("%d\t%.3f\t%d\t%.1f\t%s\t%s", timing.dim, timing.nanos / 1.0E6D, timing.calls, timing.getAverageMicros(), timing.label,
+                    timing.owner == null ? "" : timing.owner));
+        }
+        lines.add("");
+        lines.add("-- Cascading chunk loads by cause --");
+        lines.add("Dim\tCount\tStep\tOwner");
+        for (Cascade cascade : getCascades())
+        {
+            lines.add(String.format("%d\t%d\t%s\t%s", cascade.dim, cascade.count, cascade.label, cascade.owner == null ? "" : cascade.owner));
+        }
+        lines.add("");
+        lines.add("-- Most recent cascading chunk loads --");
+        lines.addAll(getCascadeChains());
+
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs())
+        {
+            throw new IOException("Could not create directory " + dir);
+        }
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    public static class Timing
+    {
+        private final int dim;
+        private final String label;
+        private final String owner;
+        private long calls;
+        private long nanos;
+
+        private Timing(int dim, String label, @Nullable String owner)
+        {
+            this.dim = dim;
+            this.label = label;
+            this.owner = owner;
+        }
+
+        public int getDimension() { return dim; }
+        public String getLabel() { return label; }
+        @Nullable
+        public String getOwner() { return owner; }
+        public long getCalls() { return calls; }
+        public long getNanos() { return nanos; }
+
+        public double getAverageMicros()
+        {
+            return calls == 0 ? 0 : nanos / 1.0E3D / calls;
+        }
+    }
+
+    public static class Cascade
+    {
+        private final int dim;
+        private final String label;
+        private final String owner;
+        private int count;
+
+        private Cascade(int dim, String label, @Nullable String owner)
+        {
+            this.dim = dim;
+            this.label = label;
+            this.owner = owner;
+        }
+
+        public int getDimension() { return dim; }
+        public String getLabel() { return label; }
+        @Nullable
+        public String getOwner() { return owner; }
+        public int getCount() { return count; }
+    }
+
+    private static class Frame
+    {
+        private final int epoch = WorldGenProfiler.epoch;
+        private final int dim;
+        private final int x;
+        private final int z;
+        private String label;
+        private String owner;
+        private long start;
+
+        private Frame(int dim, int x, int z, String label, @Nullable String owner)
+        {
+            this.dim = dim;
+            this.x = x;
+            this.z = z;
+            this.label = label;
+            this.owner = owner;
+        }
+
+        /** Must hold {@link WorldGenProfiler#lock}. */
+        private Timing timing()
+        {
+            return timings.computeIfAbsent(dim, k -> Maps.newHashMap()).computeIfAbsent(label, k -> new Timing(dim, k, owner));
+        }
+
+        private void close(long now)
+        {
+            synchronized (lock)
+            {
+                timing().nanos += now - start;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UsernameCacheJournalTest
+{
+    private static final UUID FIRST = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+    private static final UUID SECOND = UUID.fromString("853c80ef-3c37-49fd-aa49-938b674adae6");
+
+    @Test
+    public void testSetAndRemove()
+    {
+        Map<UUID, String> map = new HashMap<UUID, String>();
+        map.put(SECOND, "jeb_");
+        int count = UsernameCache.Journal.replay(FIRST + " Notch\n" + SECOND + "\n" + FIRST + " Notch2\n", map);
+        Assert.assertEquals("Every complete line should be applied", 3, count);
+        Assert.assertEquals("The last name journaled for a UUID should win", "Notch2", map.get(FIRST));
+        Assert.assertFalse("A UUID without a name should remove the entry", map.containsKey(SECOND));
+    }
+
+    @Test
+    public void testTornLineAfterUUID()
+    {
+        Map<UUID, String> map = new HashMap<UUID, String>();
+        map.put(SECOND, "jeb_");
+        int count = UsernameCache.Journal.replay(FIRST + " Notch\n" + SECOND, map);
+        Assert.assertEquals("The unterminated last line should be ignored", 1, count);
+        Assert.assertEquals("A line cut off after the UUID must not be replayed as a removal", "jeb_", map.get(SECOND));
+    }
+
+    @Test
+    public void testTornLineInName()
+    {
+        Map<UUID, String> map = new HashMap<UUID, String>();
+        map.put(SECOND, "jeb_");
+        UsernameCache.Journal.replay(FIRST + " Notch\n" + SECOND + " Dinnerbo", map);
+        Assert.assertEquals("A line cut off inside the name must not be applied", "jeb_", map.get(SECOND));
+        Assert.assertEquals("Notch", map.get(FIRST));
+    }
+
+    @Test
+    public void testMalformedLinesSkipped()
+    {
+        Map<UUID, String> map = new HashMap<UUID, String>();
+        int count = UsernameCache.Journal.replay("not-a-uuid Notch\n\n" + FIRST + " Notch\n", map);
+        Assert.assertEquals("Malformed and empty lines should be skipped", 1, count);
+        Assert.assertEquals("Notch", map.get(FIRST));
+    }
+}
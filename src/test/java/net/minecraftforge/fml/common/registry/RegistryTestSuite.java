@@ -1,5 +1,6 @@
 package net.minecraftforge.fml.common.registry;
 
+import net.minecraftforge.registries.ForgeRegistryIdTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -7,7 +8,7 @@ import org.junit.runners.Suite;
  * Run the full suite of tests
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({VanillaRegistryTests.class, FreezingTests.class, SubstitutionRemoveRestoreTest.class, SubstitutionInjectionTest.class, DummyBlockReplacementTest.class, BlockStateMappingsTest.class})
+@Suite.SuiteClasses({VanillaRegistryTests.class, FreezingTests.class, SubstitutionRemoveRestoreTest.class, SubstitutionInjectionTest.class, DummyBlockReplacementTest.class, BlockStateMappingsTest.class, ForgeRegistryIdTest.class})
 public class RegistryTestSuite
 {
 }
@@ -0,0 +1,141 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.items.wrapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fml.common.registry.ForgeTestRunner;
+import net.minecraftforge.items.ItemStackHandler;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(ForgeTestRunner.class)
+public class CombinedInvWrapperTest
+{
+    @BeforeClass
+    public static void setup()
+    {
+        Bootstrap.register();
+    }
+
+    @Test
+    public void testSlotRouting()
+    {
+        ItemStackHandler first = new ItemStackHandler(2);
+        ItemStackHandler empty = new ItemStackHandler(0);
+        ItemStackHandler last = new ItemStackHandler(3);
+        CombinedInvWrapper combined = new CombinedInvWrapper(first, empty, last);
+        first.setStackInSlot(1, new ItemStack(Items.APPLE));
+        last.setStackInSlot(0, new ItemStack(Items.STICK));
+
+        Assert.assertEquals(5, combined.getSlots());
+        Assert.assertEquals(Items.APPLE, combined.getStackInSlot(1).getItem());
+        Assert.assertEquals("Handlers without slots should be skipped", Items.STICK, combined.getStackInSlot(2).getItem());
+        Assert.assertTrue("Slots past the end should be empty", combined.getStackInSlot(5).isEmpty());
+        Assert.assertTrue("Negative slots should be empty", combined.getStackInSlot(-1).isEmpty());
+
+        Assert.assertTrue(combined.insertItem(4, new ItemStack(Items.BONE), false).isEmpty());
+        Assert.assertEquals(Items.BONE, last.getStackInSlot(2).getItem());
+        combined.setStackInSlot(0, new ItemStack(Items.ARROW));
+        Assert.assertEquals(Items.ARROW, first.getStackInSlot(0).getItem());
+        Assert.assertEquals(Items.STICK, combined.extractItem(2, 1, false).getItem());
+        Assert.assertTrue(last.getStackInSlot(0).isEmpty());
+    }
+
+    @Test
+    public void testSlotRoutingWithoutLookupTable()
+    {
+        ItemStackHandler first = new ItemStackHandler(20000);
+        ItemStackHandler empty = new ItemStackHandler(0);
+        ItemStackHandler last = new ItemStackHandler(5);
+        CombinedInvWrapper combined = new CombinedInvWrapper(first, empty, last);
+        first.setStackInSlot(19999, new ItemStack(Items.APPLE));
+        last.setStackInSlot(0, new ItemStack(Items.STICK));
+        last.setStackInSlot(4, new ItemStack(Items.BONE));
+
+        Assert.assertEquals(20005, combined.getSlots());
+        Assert.assertEquals(Items.APPLE, combined.getStackInSlot(19999).getItem());
+        Assert.assertEquals(Items.STICK, combined.getStackInSlot(20000).getItem());
+        Assert.assertEquals(Items.BONE, combined.getStackInSlot(20004).getItem());
+        Assert.assertTrue(combined.getStackInSlot(20005).isEmpty());
+    }
+
+    @Test
+    public void testVisitSlotsOffsets()
+    {
+        ItemStackHandler first = new ItemStackHandler(2);
+        ItemStackHandler last = new ItemStackHandler(3);
+        CombinedInvWrapper combined = new CombinedInvWrapper(first, new ItemStackHandler(0), last);
+        first.setStackInSlot(1, new ItemStack(Items.APPLE));
+        last.setStackInSlot(2, new ItemStack(Items.STICK));
+
+        List<Integer> visited = new ArrayList<Integer>();
+        List<Integer> filled = new ArrayList<Integer>();
+        Assert.assertTrue(combined.visitSlots((slot, stack) ->
+        {
+            visited.add(slot);
+            if (!stack.isEmpty())
+                filled.add(slot);
+            Assert.assertSame(combined.getStackInSlot(slot), stack);
+            return true;
+        }));
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4), visited);
+        Assert.assertEquals(Arrays.asList(1, 4), filled);
+
+        visited.clear();
+        Assert.assertFalse("Stopping the visit should be reported", combined.visitSlots((slot, stack) -> visited.add(slot) && slot < 2));
+        Assert.assertEquals(Arrays.asList(0, 1, 2), visited);
+    }
+
+    @Test
+    public void testVisitSlotsUsesOverriddenGetter()
+    {
+        ItemStackHandler handler = new ItemStackHandler(3);
+        handler.setStackInSlot(1, new ItemStack(Items.APPLE));
+        CombinedInvWrapper combined = new CombinedInvWrapper(handler)
+        {
+            @Override
+            @Nonnull
+            public ItemStack getStackInSlot(int slot)
+            {
+                return slot == 1 ? ItemStack.EMPTY : super.getStackInSlot(slot);
+            }
+        };
+
+        List<Integer> filled = new ArrayList<Integer>();
+        combined.visitSlots((slot, stack) ->
+        {
+            if (!stack.isEmpty())
+                filled.add(slot);
+            return true;
+        });
+        Assert.assertTrue("The overridden getStackInSlot should be visited, not the backing handler", filled.isEmpty());
+    }
+}
@@ -0,0 +1,145 @@
+package net.minecraftforge.registries;
+
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.registry.ForgeTestRunner;
+import net.minecraftforge.registries.IForgeRegistry.DummyFactory;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Id and value lookups of a single registry through overrides, removal, dummies and freezing.
+ * Lives in the registries package to reach the package private add and markDummy.
+ */
+@RunWith(ForgeTestRunner.class)
+public class ForgeRegistryIdTest
+{
+    private static final ResourceLocation NAME = new ResourceLocation("fmltest:ids");
+
+    private ForgeRegistry<RTest> registry;
+
+    static class RTest extends IForgeRegistryEntry.Impl<RTest>
+    {
+        public RTest(String name)
+        {
+            setRegistryName(name);
+        }
+        @Override
+        public String toString()
+        {
+            return this.getRegistryName().toString();
+        }
+    }
+
+    @BeforeClass
+    public static void setup()
+    {
+        Loader.instance();
+        System.setProperty("forge.disableVanillaGameData", "true");
+    }
+
+    @Before
+    public void createRegistry()
+    {
+        RegistryManager.ACTIVE.clean();
+        DummyFactory<RTest> dummies = key -> new RTest(key.toString());
+        registry = (ForgeRegistry<RTest>)new RegistryBuilder<RTest>().setName(NAME).setType(RTest.class).setIDRange(0, 255)
+                .allowModification().set(dummies).create();
+    }
+
+    @Test
+    public void testRegisterLookup()
+    {
+        RTest a = new RTest("fmltest:a");
+        RTest b = new RTest("fmltest:b");
+        int aId = registry.add(5, a, "fmltest");
+        int bId = registry.add(100, b, "fmltest");
+        assertEquals("Did not get the requested id", 5, aId);
+        assertEquals("Did not get the requested id", 100, bId);
+        assertSame(a, registry.getValue(5));
+        assertSame(b, registry.getValue(100));
+        assertEquals(5, registry.getID(a));
+        assertEquals(100, registry.getID(new ResourceLocation("fmltest:b")));
+        assertNull("Unused id should be empty", registry.getValue(6));
+        assertNull("Id past the table should be empty", registry.getValue(100000));
+        assertNull("Negative id should be empty", registry.getValue(-1));
+        assertEquals("Unregistered value should have no id", -1, registry.getID(new RTest("fmltest:c")));
+    }
+
+    @Test
+    public void testOverride()
+    {
+        RTest original = new RTest("fmltest:a");
+        RTest replacement = new RTest("fmltest:a");
+        int id = registry.add(7, original, "fmltest");
+        assertEquals("Override should keep the id of the original", id, registry.add(-1, replacement, "othermod"));
+        assertSame(replacement, registry.getValue(id));
+        assertSame(replacement, registry.getValue(new ResourceLocation("fmltest:a")));
+        assertEquals(id, registry.getID(replacement));
+        assertEquals("Overridden value should no longer have an id", -1, registry.getID(original));
+    }
+
+    @Test
+    public void testRemove()
+    {
+        RTest a = new RTest("fmltest:a");
+        RTest b = new RTest("fmltest:b");
+        int aId = registry.add(-1, a, "fmltest");
+        int bId = registry.add(-1, b, "fmltest");
+        assertSame(a, registry.remove(new ResourceLocation("fmltest:a")));
+        assertNull("Removed id should be empty", registry.getValue(aId));
+        assertEquals("Removed value should have no id", -1, registry.getID(a));
+        assertSame("Other entries should be untouched", b, registry.getValue(bId));
+        assertEquals(bId, registry.getID(b));
+    }
+
+    @Test
+    public void testMarkDummy()
+    {
+        ResourceLocation name = new ResourceLocation("fmltest:a");
+        RTest real = new RTest("fmltest:a");
+        registry.add(12, real, "fmltest");
+
+        assertTrue("Registry has a dummy factory", registry.markDummy(name, 12));
+        RTest dummy = registry.getValue(12);
+        assertNotNull(dummy);
+        assertNotSame("Value should be replaced by a dummy", real, dummy);
+        assertSame(dummy, registry.getValue(name));
+        assertEquals(12, registry.getID(dummy));
+        assertEquals("Replaced value should have no id", -1, registry.getID(real));
+        assertTrue(registry.isDummied(name));
+
+        assertEquals("Re-registering should take the dummy's id", 12, registry.add(-1, real, "fmltest"));
+        assertSame(real, registry.getValue(12));
+        assertEquals(12, registry.getID(real));
+        assertEquals("Dummy should no longer have an id", -1, registry.getID(dummy));
+        assertFalse(registry.isDummied(name));
+    }
+
+    @Test
+    public void testFreeze()
+    {
+        RTest[] values = new RTest[40];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = new RTest("fmltest:v" + i);
+            registry.add(i * 3, values[i], "fmltest");
+        }
+        registry.remove(new ResourceLocation("fmltest:v39"));
+        registry.freeze();
+
+        for (int i = 0; i < values.length - 1; i++)
+        {
+            assertSame("Value lost by freezing", values[i], registry.getValue(i * 3));
+            assertEquals("Id lost by freezing", i * 3, registry.getID(values[i]));
+        }
+        assertNull("Removed id should still be empty", registry.getValue(39 * 3));
+        assertNull("Id past the table should be empty", registry.getValue(255));
+        registry.unfreeze();
+    }
+}
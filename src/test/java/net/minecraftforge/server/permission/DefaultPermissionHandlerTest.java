@@ -0,0 +1,76 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.permission;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+// The handler is a global singleton, every test uses its own node prefix
+public class DefaultPermissionHandlerTest
+{
+    private static final DefaultPermissionHandler HANDLER = DefaultPermissionHandler.INSTANCE;
+
+    @Test
+    public void testClosestWildcardWins()
+    {
+        HANDLER.registerNode("closest.*", DefaultPermissionLevel.OP, "");
+        HANDLER.registerNode("closest.claims.*", DefaultPermissionLevel.ALL, "");
+
+        Assert.assertEquals(DefaultPermissionLevel.ALL, HANDLER.getDefaultPermissionLevel("closest.claims.break"));
+        Assert.assertEquals(DefaultPermissionLevel.ALL, HANDLER.getDefaultPermissionLevel("closest.claims.break.chest"));
+        Assert.assertEquals(DefaultPermissionLevel.OP, HANDLER.getDefaultPermissionLevel("closest.teleport"));
+        Assert.assertEquals("Wildcards should only match whole segments", DefaultPermissionLevel.OP, HANDLER.getDefaultPermissionLevel("closest.claimsx"));
+    }
+
+    @Test
+    public void testRegisteredNodeBeatsWildcard()
+    {
+        HANDLER.registerNode("exact.*", DefaultPermissionLevel.ALL, "");
+        HANDLER.registerNode("exact.admin", DefaultPermissionLevel.OP, "");
+
+        Assert.assertEquals(DefaultPermissionLevel.OP, HANDLER.getDefaultPermissionLevel("exact.admin"));
+        Assert.assertEquals(DefaultPermissionLevel.ALL, HANDLER.getDefaultPermissionLevel("exact.admin.kick"));
+    }
+
+    @Test
+    public void testRegisteringClearsResolvedNodes()
+    {
+        HANDLER.registerNode("late.*", DefaultPermissionLevel.OP, "");
+        Assert.assertEquals(DefaultPermissionLevel.OP, HANDLER.getDefaultPermissionLevel("late.build.place"));
+
+        HANDLER.registerNode("late.build.*", DefaultPermissionLevel.ALL, "");
+        Assert.assertEquals("A new wildcard should replace the resolved level", DefaultPermissionLevel.ALL, HANDLER.getDefaultPermissionLevel("late.build.place"));
+
+        HANDLER.registerNode("late.build.place", DefaultPermissionLevel.NONE, "");
+        Assert.assertEquals(DefaultPermissionLevel.NONE, HANDLER.getDefaultPermissionLevel("late.build.place"));
+    }
+
+    @Test
+    public void testRootWildcard()
+    {
+        // Only this test registers "*", so nothing else depends on unmatched nodes resolving to NONE
+        Assert.assertEquals(DefaultPermissionLevel.NONE, HANDLER.getDefaultPermissionLevel("rootwildcard.unknown"));
+        Assert.assertEquals(DefaultPermissionLevel.NONE, HANDLER.getDefaultPermissionLevel("rootwildcard"));
+
+        HANDLER.registerNode("*", DefaultPermissionLevel.ALL, "");
+        Assert.assertEquals(DefaultPermissionLevel.ALL, HANDLER.getDefaultPermissionLevel("rootwildcard.unknown"));
+        Assert.assertEquals(DefaultPermissionLevel.ALL, HANDLER.getDefaultPermissionLevel("rootwildcard"));
+    }
+}